@@ -0,0 +1,106 @@
+package com.daniel.routingservice.controller;
+
+import com.daniel.routingservice.RoutingServiceApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@code GET /routing/{origin}/{destination}} against a running application, served by
+ * Tomcat's platform thread pool ({@code platform}) or by virtual threads ({@code virtual}).
+ * <p>
+ * With {@code caches=false} the route caches are off and the pairs rotate, so every request reaches the
+ * engine. Throughput and the sampled latency percentiles (p99 in particular) are the numbers to compare;
+ * raise the client threads above Tomcat's 200 workers, e.g. {@code -t 400}, to see how each mode behaves
+ * once requests have to queue.
+ * <p>
+ * {@code caches=true} runs the production cache setup, where all client threads start on the same few
+ * misses. To check that no virtual thread pins its carrier, record pinning events of any duration:
+ * <pre>
+ * -jvmArgsAppend "-XX:StartFlightRecording:jdk.VirtualThreadPinned#threshold=0ms,filename=pinned.jfr"
+ * </pre>
+ * and then {@code jfr print --events jdk.VirtualThreadPinned pinned.jfr}. On JDK 21 the event covers
+ * parking while pinned only, not waiting to enter a monitor, so it shows no more than that nothing blocks
+ * inside a cache loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class HttpLoadBenchmark {
+
+    private static final String[] PATHS = {
+        "/routing/CZE/AUT", "/routing/PRT/CHN", "/routing/ZAF/EGY", "/routing/CZE/ITA",
+        "/routing/ESP/POL", "/routing/FRA/RUS", "/routing/CZE/USA", "/routing/XXX/CZE"
+    };
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"false", "true"})
+    private boolean caches;
+
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+    private URI[] uris;
+
+    @Setup
+    public void startApplication() {
+
+        application = new SpringApplicationBuilder(RoutingServiceApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                "app.routing.cache.enabled=" + caches,
+                "app.routing.response-cache.enabled=" + caches,
+                "logging.level.com.daniel.routingservice=ERROR")
+            .run();
+
+        var port = ((WebServerApplicationContext) application).getWebServer().getPort();
+        uris = new URI[PATHS.length];
+        for (var index = 0; index < PATHS.length; index++) {
+            uris[index] = URI.create("http://localhost:" + port + PATHS[index]);
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void stopApplication() {
+
+        client.close();
+        application.close();
+    }
+
+    @Benchmark
+    public int findRoute() throws IOException, InterruptedException {
+
+        var uri = uris[ThreadLocalRandom.current().nextInt(uris.length)];
+        var response = client.send(
+            HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+}
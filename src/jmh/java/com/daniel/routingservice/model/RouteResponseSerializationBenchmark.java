@@ -0,0 +1,52 @@
+package com.daniel.routingservice.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link RouteResponse}, the per-request cost of writing the HTTP body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteResponseSerializationBenchmark {
+
+    @Param({"1", "3", "12"})
+    private int routeLength;
+
+    private ObjectWriter writer;
+    private RouteResponse routeResponse;
+
+    @Setup
+    public void setUp() {
+
+        writer = new ObjectMapper().writerFor(RouteResponse.class);
+        var codes = List.of(
+            "PRT", "ESP", "FRA", "DEU", "POL", "BLR", "RUS", "KAZ", "CHN", "MNG", "VNM", "LAO");
+        routeResponse = new RouteResponse(codes.subList(0, routeLength));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+
+        return writer.writeValueAsBytes(routeResponse);
+    }
+}
@@ -0,0 +1,78 @@
+package com.daniel.routingservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of {@link CountryRepositoryAdapter#initialize()}: reading countries.json and building the
+ * graph, either by parsing the JSON ({@code json}) or from an up-to-date binary snapshot
+ * ({@code snapshot}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CountryLoadBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    @Param({"json", "snapshot"})
+    private String source;
+
+    private Path snapshotDirectory;
+    private String snapshotPath;
+
+    @Setup
+    public void writeSnapshot() throws IOException {
+
+        snapshotDirectory = Files.createTempDirectory("country-load-benchmark");
+        snapshotPath = source.equals("snapshot")
+            ? snapshotDirectory.resolve("countries.graph").toString()
+            : "";
+        if (!snapshotPath.isEmpty()) {
+            newRepository().initialize();
+        }
+    }
+
+    @TearDown
+    public void deleteSnapshot() throws IOException {
+
+        Files.deleteIfExists(snapshotDirectory.resolve("countries.graph"));
+        Files.delete(snapshotDirectory);
+    }
+
+    @Benchmark
+    public CountryRepository initialize() throws IOException {
+
+        var countryRepository = newRepository();
+        countryRepository.initialize();
+        return countryRepository;
+    }
+
+    private CountryRepositoryAdapter newRepository() {
+
+        return new CountryRepositoryAdapter(objectMapper, resourceLoader, "classpath:data/countries.json",
+            snapshotPath, "classpath:data/layers.json", "heap", event -> {
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Databind into {@link Country} records versus the streaming {@link CountryDataParser}, both ending with
+ * a {@link BorderGraph}. Run with {@code -prof gc} to compare allocation per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CountryParseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CountryDataParser countryDataParser = new CountryDataParser(objectMapper.getFactory());
+
+    private byte[] source;
+
+    @Setup
+    public void readSource() throws IOException {
+
+        try (var inputStream = getClass().getResourceAsStream("/data/countries.json")) {
+            source = inputStream.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public BorderGraph databind() throws IOException {
+
+        List<Country> countries = objectMapper.readValue(source, new TypeReference<>() {
+        });
+        return BorderGraph.of(countries);
+    }
+
+    @Benchmark
+    public BorderGraph streaming() throws IOException {
+
+        return countryDataParser.parse(source);
+    }
+}
@@ -0,0 +1,120 @@
+package com.daniel.routingservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CountryStore} backends compared on {@link SyntheticCountries} graphs of 250, 10 000 and 100 000
+ * countries: lookups of a random country and its borders, and a full load from an up-to-date snapshot.
+ * The heap retained by a loaded repository is printed during setup, since JMH itself only reports
+ * allocation rates. It includes the {@code BorderGraph} with both stores, which keep its adjacency on the
+ * heap; the difference between them is the per-country objects only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CountryStoreBenchmark {
+
+    @Param({"heap", "mapped"})
+    private String store;
+
+    @Param({"250", "10000", "100000"})
+    private int nodes;
+
+    @Param({"GRID"})
+    private SyntheticCountries.Shape shape;
+
+    private Path directory;
+    private CountryRepositoryAdapter countryRepository;
+    private String[] codes;
+
+    @Setup
+    public void loadRepository() throws IOException {
+
+        directory = Files.createTempDirectory("country-store-benchmark");
+        SyntheticCountries.write(
+            directory.resolve("countries.json"), shape, nodes, SyntheticCountries.DEFAULT_SEED);
+        codes = new String[nodes];
+        for (var index = 0; index < nodes; index++) {
+            codes[index] = SyntheticCountries.code(index);
+        }
+
+        var heapBefore = usedHeapAfterGc();
+        countryRepository = newRepository();
+        countryRepository.initialize();
+        var heapAfter = usedHeapAfterGc();
+        System.out.printf("%n%s store, %d countries: %d KB retained, graph included%n",
+            store, nodes, (heapAfter - heapBefore) / 1024);
+    }
+
+    @TearDown
+    public void deleteFiles() throws IOException {
+
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Object findByCca3() {
+
+        return countryRepository.findByCca3(codes[ThreadLocalRandom.current().nextInt(codes.length)]);
+    }
+
+    @Benchmark
+    public Object bordersOf() {
+
+        return countryRepository.getBordersByCountry()
+            .get(codes[ThreadLocalRandom.current().nextInt(codes.length)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object initialize() throws IOException {
+
+        var repository = newRepository();
+        repository.initialize();
+        return repository;
+    }
+
+    private CountryRepositoryAdapter newRepository() {
+
+        return new CountryRepositoryAdapter(new ObjectMapper(), new DefaultResourceLoader(),
+            directory.resolve("countries.json").toUri().toString(),
+            directory.resolve("countries.graph").toString(), "", store, event -> {
+        });
+    }
+
+    private static long usedHeapAfterGc() {
+
+        for (var round = 0; round < 3; round++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
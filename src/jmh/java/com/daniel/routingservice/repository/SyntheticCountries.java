@@ -0,0 +1,240 @@
+package com.daniel.routingservice.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates border graphs of any size in the countries.json format, for benchmarks that need more than
+ * the 250 real countries. Countries are named {@code R0}, {@code R1}, ... (base 36, see {@link #code}),
+ * list their borders in both directions and carry a centroid, so both route metrics work on them.
+ * The same shape, size and seed always give the same file.
+ * <p>
+ * Also runnable on its own to write a data set for {@code app.countries.data-path}:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.daniel.routingservice.repository.SyntheticCountries \
+ *     -Dexec.args="planar 100000 target/planar-100000.json"
+ * </pre>
+ */
+public final class SyntheticCountries {
+
+    public static final long DEFAULT_SEED = 42;
+
+    private SyntheticCountries() {
+    }
+
+    public enum Shape {
+        /**
+         * Square lattice, every country bordering up to four others. Long, uniform routes; the worst case
+         * for a breadth-first search, which visits most of the graph before reaching the far corner.
+         */
+        GRID,
+        /**
+         * Lattice with jittered centroids, a random diagonal in every cell and one border in ten removed,
+         * so degrees vary around five like on a real map; small pockets can be cut off from the rest.
+         */
+        PLANAR,
+        /**
+         * Preferential attachment (Barabási-Albert, two borders per new country) with random centroids. A
+         * few hubs border thousands of countries and every route is short, unlike any real map.
+         */
+        POWER_LAW
+    }
+
+    public static String code(int index) {
+
+        return "R" + Integer.toString(index, 36).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Writes the graph as a JSON array streamed straight from its adjacency, so even millions of
+     * countries are never held as {@link com.daniel.routingservice.model.Country} objects.
+     */
+    public static void write(Path path, Shape shape, int nodes, long seed) throws IOException {
+
+        var random = new Random(seed);
+        var edges = switch (shape) {
+            case GRID -> lattice(nodes, random, false);
+            case PLANAR -> lattice(nodes, random, true);
+            case POWER_LAW -> preferentialAttachment(nodes, random);
+        };
+        var offsets = new int[nodes + 1];
+        var neighbours = edges.toAdjacency(nodes, offsets);
+        var width = latticeWidth(nodes);
+
+        try (var generator = new JsonFactory().createGenerator(path.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (var index = 0; index < nodes; index++) {
+                generator.writeStartObject();
+                generator.writeStringField("cca3", code(index));
+                generator.writeArrayFieldStart("borders");
+                for (var edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+                    generator.writeString(code(neighbours[edge]));
+                }
+                generator.writeEndArray();
+
+                double latitude;
+                double longitude;
+                if (shape == Shape.POWER_LAW) {
+                    latitude = -60 + 120 * random.nextDouble();
+                    longitude = -180 + 360 * random.nextDouble();
+                } else {
+                    // Jitter stays below half a cell, so centroids never swap places with a neighbour's
+                    var jitter = shape == Shape.PLANAR ? 0.8 : 0.0;
+                    var row = index / width + jitter * (random.nextDouble() - 0.5);
+                    var column = index % width + jitter * (random.nextDouble() - 0.5);
+                    latitude = -60 + 120 * row / width;
+                    longitude = -180 + 360 * column / width;
+                }
+                generator.writeArrayFieldStart("latlng");
+                generator.writeNumber(Math.round(latitude * 10_000) / 10_000.0);
+                generator.writeNumber(Math.round(longitude * 10_000) / 10_000.0);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Loads a generated file like the service does, keeping countries in the mapped store so that what
+     * stays on the heap is essentially the border graph.
+     *
+     * @param snapshot where to write the graph snapshot the mapped store reads
+     */
+    public static CountryRepository load(Path path, Path snapshot) throws IOException {
+
+        var countryRepository = new CountryRepositoryAdapter(
+            new ObjectMapper(), new DefaultResourceLoader(),
+            path.toUri().toString(), snapshot.toString(), "", "mapped", event -> {
+        });
+        countryRepository.initialize();
+        return countryRepository;
+    }
+
+    private static int latticeWidth(int nodes) {
+
+        return Math.max(1, (int) Math.ceil(Math.sqrt(nodes)));
+    }
+
+    private static EdgeList lattice(int nodes, Random random, boolean planar) {
+
+        var width = latticeWidth(nodes);
+        var edges = new EdgeList(nodes * (planar ? 3 : 2));
+        for (var index = 0; index < nodes; index++) {
+            var right = index % width < width - 1 && index + 1 < nodes;
+            var down = index + width < nodes;
+            if (right) {
+                edges.add(index, index + 1, planar, random);
+            }
+            if (down) {
+                edges.add(index, index + width, planar, random);
+            }
+            if (planar && right && index + width + 1 < nodes) {
+                if (random.nextBoolean()) {
+                    edges.add(index, index + width + 1, true, random);
+                } else {
+                    edges.add(index + 1, index + width, true, random);
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static EdgeList preferentialAttachment(int nodes, Random random) {
+
+        var edges = new EdgeList(nodes * 2);
+        // Every border adds both countries here, so a uniform pick from it picks a country by its degree
+        var endpoints = new int[nodes * 4];
+        var endpointCount = 0;
+        for (var node = 1; node < nodes; node++) {
+            var first = endpointCount == 0 ? 0 : endpoints[random.nextInt(endpointCount)];
+            edges.add(node, first, false, random);
+            endpoints[endpointCount++] = node;
+            endpoints[endpointCount++] = first;
+            if (node < 2) {
+                continue;
+            }
+            int second;
+            do {
+                second = endpoints[random.nextInt(endpointCount)];
+            } while (second == first || second == node);
+            edges.add(node, second, false, random);
+            endpoints[endpointCount++] = node;
+            endpoints[endpointCount++] = second;
+        }
+        return edges;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 3) {
+            System.err.println(
+                "Usage: SyntheticCountries <grid|planar|power_law> <countries> <output.json> [seed]");
+            System.exit(1);
+        }
+        var shape = Shape.valueOf(args[0].toUpperCase(Locale.ROOT));
+        var nodes = Integer.parseInt(args[1]);
+        var seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        write(Path.of(args[2]), shape, nodes, seed);
+        System.out.printf(
+            "Wrote %d %s countries to %s%n", nodes, shape.name().toLowerCase(Locale.ROOT), args[2]);
+    }
+
+    /**
+     * Undirected edges as two parallel arrays, turned into a CSR adjacency listing every edge at both
+     * ends.
+     */
+    private static final class EdgeList {
+
+        private int[] from;
+        private int[] to;
+        private int size;
+
+        EdgeList(int capacity) {
+
+            from = new int[Math.max(1, capacity)];
+            to = new int[from.length];
+        }
+
+        void add(int first, int second, boolean thinned, Random random) {
+
+            if (thinned && random.nextInt(10) == 0) {
+                return;
+            }
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+            }
+            from[size] = first;
+            to[size] = second;
+            size++;
+        }
+
+        int[] toAdjacency(int nodes, int[] offsets) {
+
+            for (var edge = 0; edge < size; edge++) {
+                offsets[from[edge] + 1]++;
+                offsets[to[edge] + 1]++;
+            }
+            for (var node = 0; node < nodes; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            var next = Arrays.copyOf(offsets, nodes);
+            var neighbours = new int[size * 2];
+            for (var edge = 0; edge < size; edge++) {
+                neighbours[next[from[edge]]++] = to[edge];
+                neighbours[next[to[edge]]++] = from[edge];
+            }
+            return neighbours;
+        }
+    }
+}
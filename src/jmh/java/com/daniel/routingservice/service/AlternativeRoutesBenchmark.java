@@ -0,0 +1,57 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AlternativeRoutingService#findRoutes} on the full country data set, per route length and K.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlternativeRoutesBenchmark {
+
+    // short: neighbours, long: across Eurasia
+    @Param({"CZE-AUT", "PRT-CHN"})
+    private String pair;
+
+    @Param({"3", "10"})
+    private int k;
+
+    private AlternativeRoutingService alternativeRoutingService;
+    private String origin;
+    private String destination;
+
+    @Setup
+    public void setUp() {
+
+        alternativeRoutingService = new AlternativeRoutingService(
+            InMemoryCountryRepository.fromClasspath("/data/countries.json"));
+
+        var codes = pair.split("-");
+        origin = codes[0];
+        destination = codes[1];
+    }
+
+    @Benchmark
+    public List<List<String>> findRoutes() {
+
+        return alternativeRoutingService.findRoutes(origin, destination, k);
+    }
+}
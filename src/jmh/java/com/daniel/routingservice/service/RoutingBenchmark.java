@@ -0,0 +1,87 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RoutingService#findRoute} on the full country data set, per engine, metric and route shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    @Param({"bfs", "bidirectional", "precomputed"})
+    private String engine;
+
+    // short: neighbours, long: across Eurasia, same: origin equals destination, unreachable: different
+    // continents
+    @Param({"CZE-AUT", "PRT-CHN", "ZAF-EGY", "CZE-CZE", "CZE-USA"})
+    private String pair;
+
+    @Param({"HOPS", "DISTANCE"})
+    private RouteMetric metric;
+
+    private RoutingService routingService;
+    private String origin;
+    private String destination;
+
+    @Setup
+    public void setUp() {
+
+        var countryRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        // The production registry and sampling, so the numbers include the cost of recording the search
+        var routingMetrics = new RoutingMetrics(
+            new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), 16);
+        // Built as at startup, so routes by distance are guided by the landmarks
+        var distanceOracle = new DistanceOracle(countryRepository, 4096, 8);
+        distanceOracle.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+        routingService = switch (engine) {
+            case "bfs" -> new BfsRoutingService(countryRepository, routingMetrics, distanceOracle);
+            case "bidirectional" -> new BidirectionalBfsRoutingService(
+                countryRepository, routingMetrics, distanceOracle);
+            case "precomputed" -> {
+                var precomputed = new PrecomputedRoutingService(
+                    countryRepository, routingMetrics, distanceOracle);
+                precomputed.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+                yield precomputed;
+            }
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+
+        var codes = pair.split("-");
+        origin = codes[0];
+        destination = codes[1];
+    }
+
+    @Benchmark
+    public Object findRoute() {
+
+        try {
+            return routingService.findRoute(origin, destination, metric);
+        } catch (RouteNotFoundException exception) {
+            return exception;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.SyntheticCountries;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every routing engine on {@link SyntheticCountries} graphs of 10^3 to 10^6 countries.
+ * <p>
+ * JMH samples the latency of {@link RoutingService#findRoute} between random pairs, so the percentiles
+ * include the long routes across the whole graph. Setup prints how long loading the generated JSON took
+ * and how much heap the graph and the engine retain afterwards, the two numbers that grow with the graph
+ * beside latency.
+ * <p>
+ * The {@code precomputed} engine keeps a table of {@code n^2} shorts and supports at most 32 767
+ * countries; its setup fails on the larger sizes and JMH moves on to the next combination.
+ * <p>
+ * With {@code landmarks > 0} the {@link DistanceOracle} is built with that many landmarks and no exact
+ * matrix, so hop-count routes of the search engines run as a landmark-guided {@link HopSearch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class ScalingBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    @Param({"GRID", "PLANAR", "POWER_LAW"})
+    private SyntheticCountries.Shape shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int nodes;
+
+    @Param({"bfs", "bidirectional", "precomputed"})
+    private String engine;
+
+    @Param({"HOPS"})
+    private RouteMetric metric;
+
+    @Param({"0", "8"})
+    private int landmarks;
+
+    private Path directory;
+    private RoutingService routingService;
+    private String[] origins;
+    private String[] destinations;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("scaling-benchmark");
+        var data = directory.resolve("countries.json");
+        SyntheticCountries.write(data, shape, nodes, SyntheticCountries.DEFAULT_SEED);
+
+        var heapBefore = usedHeapAfterGc();
+        var startedAt = System.nanoTime();
+        var countryRepository = SyntheticCountries.load(data, directory.resolve("countries.graph"));
+        var loadMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        var routingMetrics = new RoutingMetrics(
+            new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), 16);
+        var distanceOracle = new DistanceOracle(countryRepository, 0, landmarks);
+        if (landmarks > 0) {
+            distanceOracle.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+        }
+        routingService = switch (engine) {
+            case "bfs" -> new BfsRoutingService(countryRepository, routingMetrics, distanceOracle);
+            case "bidirectional" -> new BidirectionalBfsRoutingService(
+                countryRepository, routingMetrics, distanceOracle);
+            case "precomputed" -> {
+                var precomputed = new PrecomputedRoutingService(
+                    countryRepository, routingMetrics, distanceOracle);
+                precomputed.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+                yield precomputed;
+            }
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+        var setupMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        var retainedKilobytes = (usedHeapAfterGc() - heapBefore) / 1024;
+        System.out.printf("%n%s, %d countries, %s: loaded in %d ms, ready in %d ms, %d KB retained%n",
+            shape, nodes, engine, loadMillis, setupMillis, retainedKilobytes);
+
+        var random = new Random(SyntheticCountries.DEFAULT_SEED);
+        origins = new String[PAIRS];
+        destinations = new String[PAIRS];
+        for (var pair = 0; pair < PAIRS; pair++) {
+            origins[pair] = SyntheticCountries.code(random.nextInt(nodes));
+            destinations[pair] = SyntheticCountries.code(random.nextInt(nodes));
+        }
+    }
+
+    @TearDown
+    public void deleteFiles() throws IOException {
+
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Object findRoute() {
+
+        var pair = next++ & (PAIRS - 1);
+        try {
+            return routingService.findRoute(origins[pair], destinations[pair], metric);
+        } catch (RouteNotFoundException exception) {
+            return exception;
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+
+        for (var round = 0; round < 3; round++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,14 @@
+package com.daniel.routingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the cache of encoded {@code GET /routing/{origin}/{destination}} responses.
+ *
+ * @param enabled keeps the encoded responses when {@code true}; otherwise every response is encoded again
+ * @param maxSize upper bound of cached responses, evicted by Caffeine's size policy (W-TinyLFU)
+ * @param gzip    also keep a gzip form and send it to clients that accept it
+ */
+@ConfigurationProperties(prefix = "app.routing.response-cache")
+public record ResponseCacheProperties(boolean enabled, long maxSize, boolean gzip) {
+}
@@ -0,0 +1,23 @@
+package com.daniel.routingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the route cache in front of the routing engine.
+ *
+ * @param enabled          wraps the engine in a cache when {@code true}
+ * @param maxSize          upper bound of cached pairs, evicted by Caffeine's size policy (W-TinyLFU)
+ * @param expireAfterWrite optional time-to-live of an entry
+ * @param expireAfterAccess optional idle time after which an entry is dropped
+ * @param cacheNotFound    also cache unreachable pairs
+ */
+@ConfigurationProperties(prefix = "app.routing.cache")
+public record RouteCacheProperties(
+    boolean enabled,
+    long maxSize,
+    Duration expireAfterWrite,
+    Duration expireAfterAccess,
+    boolean cacheNotFound) {
+}
@@ -0,0 +1,100 @@
+package com.daniel.routingservice.config;
+
+import com.daniel.routingservice.controller.EncodedRouteCache;
+import com.daniel.routingservice.repository.CountryRepository;
+import com.daniel.routingservice.service.CachingRoutingService;
+import com.daniel.routingservice.service.GraphPreprocessor;
+import com.daniel.routingservice.service.RoutingEngine;
+import com.daniel.routingservice.service.RoutingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties({RouteCacheProperties.class, ResponseCacheProperties.class})
+public class RoutingConfiguration {
+
+    static final String ROUTE_CACHE_NAME = "routes";
+    static final String RESPONSE_CACHE_NAME = "route-responses";
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.routing.cache.enabled", havingValue = "true")
+    public RoutingService cachingRoutingService(
+        @RoutingEngine RoutingService routingEngine,
+        RouteCacheProperties cacheProperties,
+        MeterRegistry meterRegistry) {
+
+        var cacheBuilder = Caffeine.newBuilder()
+            .maximumSize(cacheProperties.maxSize())
+            .recordStats();
+        if (cacheProperties.expireAfterWrite() != null) {
+            cacheBuilder.expireAfterWrite(cacheProperties.expireAfterWrite());
+        }
+        if (cacheProperties.expireAfterAccess() != null) {
+            cacheBuilder.expireAfterAccess(cacheProperties.expireAfterAccess());
+        }
+
+        var cache = cacheBuilder.<CachingRoutingService.RouteKey, Object>buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, ROUTE_CACHE_NAME);
+
+        return new CachingRoutingService(routingEngine, cache, cacheProperties.cacheNotFound());
+    }
+
+    @Bean
+    public EncodedRouteCache encodedRouteCache(
+        RoutingService routingService,
+        ObjectMapper objectMapper,
+        ResponseCacheProperties cacheProperties,
+        MeterRegistry meterRegistry) {
+
+        AsyncCache<CachingRoutingService.RouteKey, EncodedRouteCache.EncodedRoute> cache = null;
+        if (cacheProperties.enabled()) {
+            cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.maxSize())
+                .recordStats()
+                .buildAsync();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, RESPONSE_CACHE_NAME);
+        }
+
+        return new EncodedRouteCache(routingService, objectMapper, cache, cacheProperties.gzip());
+    }
+
+    /**
+     * Size of the graph currently served; read on scrape, so a reload shows up without re-registering.
+     */
+    @Bean
+    public MeterBinder borderGraphMetrics(CountryRepository countryRepository) {
+
+        return meterRegistry -> {
+            Gauge.builder("routing.graph.countries", countryRepository,
+                    repository -> repository.getBorderGraph().size())
+                .description("Countries in the border graph")
+                .register(meterRegistry);
+            Gauge.builder("routing.graph.borders", countryRepository,
+                    repository -> repository.getBorderGraph().edgeCount())
+                .description("Directed borders in the border graph")
+                .register(meterRegistry);
+        };
+    }
+
+    /**
+     * The {@code preprocessing} health component, part of the readiness group so that an instance only
+     * receives traffic once its derived indexes are built.
+     */
+    @Bean
+    public HealthIndicator preprocessingHealthIndicator(GraphPreprocessor graphPreprocessor) {
+
+        return graphPreprocessor::health;
+    }
+}
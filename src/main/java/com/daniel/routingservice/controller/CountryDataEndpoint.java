@@ -0,0 +1,52 @@
+package com.daniel.routingservice.controller;
+
+import com.daniel.routingservice.repository.CountryDataReloader;
+import com.daniel.routingservice.repository.CountryRepositoryAdapter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Admin view of the loaded country data: {@code GET /actuator/countries} describes the current snapshot,
+ * {@code POST /actuator/countries} reloads it from {@code app.countries.data-path}. The reload is only
+ * mapped with {@code management.endpoint.countries.access: unrestricted}, since the endpoint itself is
+ * not secured.
+ */
+@Component
+@Endpoint(id = "countries")
+public class CountryDataEndpoint {
+
+    private final CountryRepositoryAdapter countryRepository;
+    private final CountryDataReloader countryDataReloader;
+
+    public CountryDataEndpoint(
+        CountryRepositoryAdapter countryRepository,
+        CountryDataReloader countryDataReloader) {
+
+        this.countryRepository = countryRepository;
+        this.countryDataReloader = countryDataReloader;
+    }
+
+    @ReadOperation
+    public Map<String, Object> snapshot() {
+
+        var borderGraph = countryRepository.getBorderGraph();
+
+        return Map.of(
+            "version", countryRepository.version(),
+            "countries", borderGraph.size(),
+            "borders", borderGraph.edgeCount(),
+            "components", borderGraph.componentCount());
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+
+        countryDataReloader.reload().join();
+
+        return snapshot();
+    }
+}
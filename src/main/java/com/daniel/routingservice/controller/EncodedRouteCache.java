@@ -0,0 +1,127 @@
+package com.daniel.routingservice.controller;
+
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryDataReloadedEvent;
+import com.daniel.routingservice.service.CachingRoutingService;
+import com.daniel.routingservice.service.CachingRoutingService.RouteKey;
+import com.daniel.routingservice.service.CallerLoads;
+import com.daniel.routingservice.service.RoutingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves {@code GET /routing/{origin}/{destination}} bodies as ready-made bytes.
+ * <p>
+ * A hit returns the JSON exactly as it was first written, its gzip form and an ETag, so the controller
+ * neither builds a {@link com.daniel.routingservice.model.RouteResponse} nor runs Jackson. The ETag is
+ * derived from the JSON bytes, so it stays the same across restarts and instances for as long as the
+ * route does. Errors are not cached here; the {@link RoutingService} below decides whether they are
+ * cached.
+ * <p>
+ * Misses are encoded on the requesting thread outside the cache's lock, see {@link CallerLoads}. The
+ * cache is cleared whenever the country data is reloaded, after the {@link CachingRoutingService} it may
+ * load from.
+ */
+public class EncodedRouteCache {
+
+    private final RoutingService routingService;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<RouteKey, EncodedRoute> cache;
+    private final boolean gzip;
+
+    /**
+     * @param cache encoded routes per request, or {@code null} to encode every response
+     * @param gzip  also keep a gzip form of responses that it makes smaller
+     */
+    public EncodedRouteCache(
+        RoutingService routingService,
+        ObjectMapper objectMapper,
+        AsyncCache<RouteKey, EncodedRoute> cache,
+        boolean gzip) {
+
+        this.routingService = routingService;
+        this.objectMapper = objectMapper;
+        this.cache = cache;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @throws CountryNotFoundException when either country does not exist
+     * @throws RouteNotFoundException   when there is no route
+     */
+    public EncodedRoute findRoute(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints) {
+
+        var key = new RouteKey(origin, destination, metric, constraints);
+        return cache == null ? encode(key) : CallerLoads.get(cache, key, this::encode);
+    }
+
+    @EventListener
+    @Order(CachingRoutingService.RELOAD_ORDER + 1)
+    void onCountryDataReloaded(CountryDataReloadedEvent event) {
+
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    private EncodedRoute encode(RouteKey key) {
+
+        var route = routingService.findRoute(
+            key.origin(), key.destination(), key.metric(), key.constraints());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(route);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Cannot serialize route " + route, exception);
+        }
+
+        var checksum = new CRC32C();
+        checksum.update(json);
+        var etag = "\"" + Long.toHexString(checksum.getValue()) + "\"";
+
+        var gzipped = gzip ? gzip(json) : null;
+        if (gzipped != null && gzipped.length >= json.length) {
+            gzipped = null;
+        }
+        var gzippedEtag = gzipped == null ? null : etag.substring(0, etag.length() - 1) + "-gzip\"";
+        return new EncodedRoute(json, etag, gzipped, gzippedEtag);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+
+        var buffer = new ByteArrayOutputStream(bytes.length);
+        try (var output = new GZIPOutputStream(buffer)) {
+            output.write(bytes);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @param json        the response body; never modified
+     * @param etag        strong ETag of {@code json}, quoted
+     * @param gzipped     {@code json} gzip-compressed, or {@code null} when gzip is off or would not make
+     *                    it smaller
+     * @param gzippedEtag ETag of {@code gzipped}; content codings of one resource need distinct strong
+     *                    validators
+     */
+    public record EncodedRoute(byte[] json, String etag, byte[] gzipped, String gzippedEtag) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.daniel.routingservice.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of values as newline-delimited JSON while the values are produced.
+ * <p>
+ * Every value goes through one shared {@link JsonGenerator}, so nothing but the current value is held in
+ * memory. The output is flushed every {@link #FLUSH_EVERY} lines: a slow client then blocks the writer on
+ * the socket instead of letting the server buffer the whole result.
+ */
+final class NdjsonStreamingResponseBody implements StreamingResponseBody {
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Stream<?> values;
+
+    NdjsonStreamingResponseBody(ObjectMapper objectMapper, Stream<?> values) {
+
+        this.objectMapper = objectMapper;
+        this.values = values;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+
+        // Flushing is done here in batches, not by Jackson after every value
+        var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (var generator = objectMapper.getFactory().createGenerator(outputStream);
+             values) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are terminated explicitly below instead of Jackson's default space between root
+            // values
+            generator.setRootValueSeparator(null);
+
+            var written = 0;
+            for (var iterator = values.iterator(); iterator.hasNext(); ) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.daniel.routingservice.controller;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs at most one message per interval and counts the rest, so a flood of similar events (a scanner
+ * probing country codes, a client retrying a bad request) costs a counter increment each instead of a log
+ * line. The next message that gets through reports how many were dropped since the previous one.
+ */
+final class RateLimitedLog {
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedAt;
+    private final LongAdder suppressed = new LongAdder();
+
+    RateLimitedLog(Logger log, Duration interval) {
+
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowedAt = new AtomicLong(System.nanoTime());
+    }
+
+    void warn(String format, Object argument) {
+
+        var now = System.nanoTime();
+        var allowedAt = nextAllowedAt.get();
+        if (now - allowedAt < 0 || !nextAllowedAt.compareAndSet(allowedAt, now + intervalNanos)) {
+            suppressed.increment();
+            return;
+        }
+
+        var dropped = suppressed.sumThenReset();
+        if (dropped == 0) {
+            log.warn(format, argument);
+        } else {
+            log.warn(format + " ({} similar messages suppressed)", argument, dropped);
+        }
+    }
+}
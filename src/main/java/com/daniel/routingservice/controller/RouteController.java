@@ -1,31 +1,255 @@
 package com.daniel.routingservice.controller;
 
+import com.daniel.routingservice.model.AlternativeRoutesResponse;
+import com.daniel.routingservice.model.BatchRouteRequest;
+import com.daniel.routingservice.model.BatchRouteResponse;
+import com.daniel.routingservice.model.DistanceResponse;
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RoutePair;
 import com.daniel.routingservice.model.RouteResponse;
-import com.daniel.routingservice.service.RoutingService;
+import com.daniel.routingservice.model.RouteResult;
+import com.daniel.routingservice.service.AlternativeRoutingService;
+import com.daniel.routingservice.service.BatchRoutingService;
+import com.daniel.routingservice.service.DistanceOracle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.beans.PropertyEditorSupport;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/routing")
 public class RouteController {
 
-    private final RoutingService routingService;
+    private final EncodedRouteCache encodedRouteCache;
+    private final BatchRoutingService batchRoutingService;
+    private final AlternativeRoutingService alternativeRoutingService;
+    private final DistanceOracle distanceOracle;
+    private final ObjectMapper objectMapper;
 
-    public RouteController(RoutingService routingService) {
+    public RouteController(
+        EncodedRouteCache encodedRouteCache,
+        BatchRoutingService batchRoutingService,
+        AlternativeRoutingService alternativeRoutingService,
+        DistanceOracle distanceOracle,
+        ObjectMapper objectMapper) {
 
-        this.routingService = routingService;
+        this.encodedRouteCache = encodedRouteCache;
+        this.batchRoutingService = batchRoutingService;
+        this.alternativeRoutingService = alternativeRoutingService;
+        this.distanceOracle = distanceOracle;
+        this.objectMapper = objectMapper;
     }
 
+    @InitBinder
+    void initBinder(WebDataBinder binder) {
+
+        // Accept ?metric=distance as well as ?metric=DISTANCE
+        binder.registerCustomEditor(RouteMetric.class, new PropertyEditorSupport() {
+
+            @Override
+            public void setAsText(String text) {
+
+                setValue(RouteMetric.valueOf(text.trim().toUpperCase(Locale.ROOT)));
+            }
+        });
+    }
+
+    /**
+     * Writes the cached JSON bytes of the route as they are; see {@link EncodedRouteCache}. Answers 304
+     * when the client already has the route ({@code If-None-Match}) and sends the gzip form to clients
+     * that accept it.
+     */
     @GetMapping("/{origin}/{destination}")
-    public ResponseEntity<RouteResponse> getRoute(
+    public ResponseEntity<byte[]> getRoute(
+        @PathVariable String origin,
+        @PathVariable String destination,
+        @RequestParam(defaultValue = "hops") RouteMetric metric,
+        @RequestParam(defaultValue = "") List<String> avoid,
+        @RequestParam(defaultValue = "") @Size(max = RouteConstraints.MAX_VIA) List<String> via,
+        @RequestParam(defaultValue = "") List<String> layers,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        var constraints = new RouteConstraints(normalize(avoid), normalize(via),
+            layers.stream().map(layer -> layer.toLowerCase(Locale.ROOT)).toList());
+        var route = encodedRouteCache.findRoute(
+            origin.toUpperCase(), destination.toUpperCase(), metric, constraints);
+
+        var gzipped = route.gzipped() != null && acceptsGzip(acceptEncoding);
+        var headers = new HttpHeaders();
+        headers.setETag(gzipped ? route.gzippedEtag() : route.etag());
+        if (route.gzipped() != null) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        if (ifNoneMatch != null
+            && (matches(ifNoneMatch, route.etag()) || matches(ifNoneMatch, route.gzippedEtag()))) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        if (gzipped) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(gzipped ? route.gzipped() : route.json(), headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/{origin}/{destination}/alternatives")
+    public ResponseEntity<AlternativeRoutesResponse> getAlternativeRoutes(
+        @PathVariable String origin,
+        @PathVariable String destination,
+        @RequestParam(defaultValue = "3") @Min(1) @Max(AlternativeRoutesResponse.MAX_ROUTES) int k) {
+
+        var routes = alternativeRoutingService.findRoutes(
+            origin.toUpperCase(), destination.toUpperCase(), k);
+
+        return ResponseEntity.ok(new AlternativeRoutesResponse(routes));
+    }
+
+    /**
+     * Bounds of the route length from the {@link DistanceOracle}, exact when they meet; see
+     * {@link DistanceResponse}.
+     */
+    @GetMapping("/{origin}/{destination}/distance")
+    public ResponseEntity<DistanceResponse> getDistance(
+        @PathVariable String origin,
+        @PathVariable String destination,
+        @RequestParam(defaultValue = "hops") RouteMetric metric) {
+
+        var distance = distanceOracle.findDistance(
+            origin.toUpperCase(), destination.toUpperCase(), metric);
+
+        return ResponseEntity.ok(distance);
+    }
+
+    @GetMapping("/{origin}")
+    public ResponseEntity<BatchRouteResponse> getRoutesFrom(
+        @PathVariable String origin,
+        @RequestParam(defaultValue = "") List<String> destinations,
+        @RequestParam(required = false) @Min(0) Integer maxHops) {
+
+        var normalizedDestinations = normalize(destinations);
+
+        var results = batchRoutingService.findRoutesFrom(
+            origin.toUpperCase(), normalizedDestinations, maxHops);
+
+        return ResponseEntity.ok(new BatchRouteResponse(results));
+    }
+
+    @GetMapping(value = "/{origin}", produces = NdjsonStreamingResponseBody.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRoutesFrom(
         @PathVariable String origin,
-        @PathVariable String destination) {
+        @RequestParam(defaultValue = "") List<String> destinations,
+        @RequestParam(required = false) @Min(0) Integer maxHops) {
+
+        var normalizedDestinations = normalize(destinations);
+
+        var results = batchRoutingService.streamRoutesFrom(
+            origin.toUpperCase(), normalizedDestinations, maxHops);
+
+        return streamNdjson(results);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRouteResponse> getRoutes(@Valid @RequestBody BatchRouteRequest request) {
+
+        var pairs = normalize(request);
+
+        var results = batchRoutingService.findRoutes(pairs);
+
+        return ResponseEntity.ok(new BatchRouteResponse(results));
+    }
+
+    @PostMapping(value = "/batch", produces = NdjsonStreamingResponseBody.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRoutes(
+        @Valid @RequestBody BatchRouteRequest request) {
+
+        var pairs = normalize(request);
+
+        var results = batchRoutingService.streamRoutes(pairs);
+
+        return streamNdjson(results);
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}: {@code W/} prefixes are ignored.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+
+        if (etag == null) {
+            return false;
+        }
+        for (var candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag)
+                || candidate.startsWith("W/") && candidate.substring(2).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether {@code Accept-Encoding} lists {@code gzip} or {@code *} without {@code q=0}
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parameters = coding.split(";");
+            var name = parameters[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (var index = 1; index < parameters.length; index++) {
+                if (parameters[index].trim().matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static List<String> normalize(List<String> codes) {
+
+        return codes.stream().map(String::toUpperCase).toList();
+    }
+
+    private static List<RoutePair> normalize(BatchRouteRequest request) {
+
+        return request.pairs().stream()
+            .map(pair -> new RoutePair(pair.origin().toUpperCase(), pair.destination().toUpperCase()))
+            .toList();
+    }
 
-        var route = routingService.findRoute(origin.toUpperCase(), destination.toUpperCase());
+    private ResponseEntity<StreamingResponseBody> streamNdjson(Stream<RouteResult> results) {
 
-        return ResponseEntity.ok(route);
+        return ResponseEntity.ok()
+            .contentType(NdjsonStreamingResponseBody.APPLICATION_NDJSON)
+            .body(new NdjsonStreamingResponseBody(objectMapper, results));
     }
-}
\ No newline at end of file
+}
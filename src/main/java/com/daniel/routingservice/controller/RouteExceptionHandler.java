@@ -1,36 +1,133 @@
 package com.daniel.routingservice.controller;
 
 import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.LayerNotFoundException;
 import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Duration;
+
+/**
+ * Maps failures to RFC 9457 problem details.
+ * <p>
+ * Unknown countries or layers, unreachable pairs and malformed requests are the client's problem and can
+ * arrive in floods, so each one only increments {@code routing.errors} (tagged {@code error}) and is
+ * logged at {@code DEBUG}; at {@code WARN} they are rate limited to one line per
+ * {@code app.routing.error-log-interval}. Only unexpected exceptions are logged with their stack trace.
+ */
 @RestControllerAdvice
 public class RouteExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(RouteExceptionHandler.class);
 
+    private final RateLimitedLog rateLimitedLog;
+    private final Counter countryNotFound;
+    private final Counter routeNotFound;
+    private final Counter layerNotFound;
+    private final Counter invalidRequest;
+
+    public RouteExceptionHandler(
+        MeterRegistry meterRegistry,
+        @Value("${app.routing.error-log-interval}") Duration errorLogInterval) {
+
+        this.rateLimitedLog = new RateLimitedLog(log, errorLogInterval);
+        this.countryNotFound = errorCounter(meterRegistry, "country_not_found");
+        this.routeNotFound = errorCounter(meterRegistry, "route_not_found");
+        this.layerNotFound = errorCounter(meterRegistry, "layer_not_found");
+        this.invalidRequest = errorCounter(meterRegistry, "invalid_request");
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String error) {
+
+        return Counter.builder("routing.errors")
+            .description("Requests rejected with 400 Bad Request")
+            .tag("error", error)
+            .register(meterRegistry);
+    }
+
+    @ExceptionHandler(CountryNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleCountryNotFound(CountryNotFoundException exception) {
+
+        countryNotFound.increment();
+        return badRequest("Country not found", exception.getMessage(), exception);
+    }
+
+    @ExceptionHandler(RouteNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleRouteNotFound(RouteNotFoundException exception) {
+
+        routeNotFound.increment();
+        return badRequest("Route not found", exception.getMessage(), exception);
+    }
+
+    @ExceptionHandler(LayerNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleLayerNotFound(LayerNotFoundException exception) {
+
+        layerNotFound.increment();
+        return badRequest("Layer not found", exception.getMessage(), exception);
+    }
+
     @ExceptionHandler({
-        CountryNotFoundException.class,
-        RouteNotFoundException.class})
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<Object> handleBadRequestExceptions(RuntimeException runtimeException) {
+        MethodArgumentNotValidException.class,
+        HandlerMethodValidationException.class,
+        HttpMessageNotReadableException.class,
+        MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ProblemDetail> handleInvalidRequest(Exception exception) {
+
+        invalidRequest.increment();
+        return badRequest("Invalid request", describe(exception), exception);
+    }
 
-        log.error("Bad request exception occurred:", runtimeException);
+    /**
+     * Short client-facing detail; the framework messages name internal types and are only logged.
+     */
+    private static String describe(Exception exception) {
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        return switch (exception) {
+            case MethodArgumentTypeMismatchException mismatch ->
+                "Invalid value for parameter '%s'".formatted(mismatch.getName());
+            case HttpMessageNotReadableException ignored -> "Malformed request body";
+            case ErrorResponse errorResponse -> errorResponse.getBody().getDetail();
+            default -> null;
+        };
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleException(Exception exception) {
+    public ResponseEntity<ProblemDetail> handleException(Exception exception) {
+
+        // Framework rejections such as an unmapped method carry their own status
+        if (exception instanceof ErrorResponse errorResponse) {
+            return ResponseEntity.status(errorResponse.getStatusCode()).body(errorResponse.getBody());
+        }
 
         log.error("Exception occurred:", exception);
 
-        return ResponseEntity.internalServerError().build();
+        return ResponseEntity.internalServerError()
+            .body(ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    private ResponseEntity<ProblemDetail> badRequest(String title, String detail, Exception exception) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("{}: {}", title, exception.getMessage());
+        }
+        rateLimitedLog.warn("Bad request: {}", exception.getMessage());
+
+        var problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, detail);
+        problem.setTitle(title);
+        return ResponseEntity.badRequest().body(problem);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.daniel.routingservice.model;
+
+import java.util.List;
+
+/**
+ * Loopless routes between one pair of countries, shortest first.
+ */
+public record AlternativeRoutesResponse(List<List<String>> routes) {
+
+    public static final int MAX_ROUTES = 20;
+}
@@ -0,0 +1,13 @@
+package com.daniel.routingservice.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchRouteRequest(
+    @NotEmpty @Size(max = BatchRouteRequest.MAX_PAIRS) List<@Valid RoutePair> pairs) {
+
+    public static final int MAX_PAIRS = 100_000;
+}
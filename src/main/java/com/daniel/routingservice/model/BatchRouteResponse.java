@@ -0,0 +1,10 @@
+package com.daniel.routingservice.model;
+
+import java.util.List;
+
+/**
+ * Results of a multi-route request: in pair order for a {@link BatchRouteRequest},
+ * in order of increasing hop count for routes from one origin.
+ */
+public record BatchRouteResponse(List<RouteResult> results) {
+}
@@ -0,0 +1,612 @@
+package com.daniel.routingservice.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Integer-indexed border graph in compressed sparse row form.
+ * <p>
+ * Every country is interned to a dense index in load order. The neighbours of node {@code i} are
+ * {@code neighbours()[offsets()[i]]} up to (exclusive) {@code neighbours()[offsets()[i + 1]]}, kept in
+ * the order the borders appear in the source data. Borders pointing to unknown codes are dropped.
+ * <p>
+ * Borders are directed as listed in the data (a few are one-sided), so the reverse adjacency is kept as
+ * well in {@link #reverseOffsets()} / {@link #reverseNeighbours()} for searches that walk back from the
+ * destination.
+ * <p>
+ * Countries are also labelled with the (weakly) connected component they belong to. Different components
+ * mean no land route in either direction, which lets routers reject such pairs without searching.
+ * <p>
+ * Each country may carry its centroid ({@code latlng} in the data). Borders are then also weighted by the
+ * great-circle distance between the two centroids in {@link #edgeLengths()}; a border touching a country
+ * without a location has length 0.
+ * <p>
+ * Optional {@link EdgeLayer}s (ferries, tunnels, ...) add connections that are not borders. They are kept
+ * apart from the borders and only used by searches that ask for them; see {@link #withLayers}.
+ * <p>
+ * The arrays returned by {@link #offsets()} and {@link #neighbours()} are shared, not copied, so that
+ * search code can iterate them directly; callers must treat them as read-only.
+ */
+public final class BorderGraph {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final String[] codes;
+    private final Map<String, Integer> indexByCode;
+    private final int[] offsets;
+    private final int[] neighbours;
+    // Centroid per node in degrees, NaN when unknown
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final boolean allLocated;
+    // Centroids as points on the unit sphere, x/y/z interleaved, for cheap distance bounds
+    private final double[] unitVectors;
+    private final double[] edgeLengths;
+    private final int[] reverseOffsets;
+    private final int[] reverseNeighbours;
+    private final int[] componentIds;
+    private final int componentCount;
+    private final EdgeLayer[] layers;
+    // Components over the borders and all layers together
+    private final int[] layeredComponentIds;
+
+    private BorderGraph(
+        String[] codes,
+        Map<String, Integer> indexByCode,
+        int[] offsets,
+        int[] neighbours,
+        double[] latitudes,
+        double[] longitudes) {
+
+        this.codes = codes;
+        this.indexByCode = indexByCode;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.allLocated = Arrays.stream(latitudes).noneMatch(Double::isNaN)
+            && Arrays.stream(longitudes).noneMatch(Double::isNaN);
+        this.unitVectors = new double[3 * codes.length];
+        this.edgeLengths = new double[neighbours.length];
+        measureEdges();
+        this.reverseOffsets = new int[codes.length + 1];
+        this.reverseNeighbours = new int[neighbours.length];
+        buildReverse();
+        this.componentIds = new int[codes.length];
+        this.componentCount = labelComponents(componentIds, new EdgeLayer[0]);
+        this.layers = new EdgeLayer[0];
+        this.layeredComponentIds = componentIds;
+    }
+
+    /**
+     * Shares everything with {@code graph} but the layers.
+     */
+    private BorderGraph(BorderGraph graph, EdgeLayer[] layers) {
+
+        this.codes = graph.codes;
+        this.indexByCode = graph.indexByCode;
+        this.offsets = graph.offsets;
+        this.neighbours = graph.neighbours;
+        this.latitudes = graph.latitudes;
+        this.longitudes = graph.longitudes;
+        this.allLocated = graph.allLocated;
+        this.unitVectors = graph.unitVectors;
+        this.edgeLengths = graph.edgeLengths;
+        this.reverseOffsets = graph.reverseOffsets;
+        this.reverseNeighbours = graph.reverseNeighbours;
+        this.componentIds = graph.componentIds;
+        this.componentCount = graph.componentCount;
+        this.layers = layers;
+        this.layeredComponentIds = new int[codes.length];
+        labelComponents(layeredComponentIds, layers);
+    }
+
+    private void buildReverse() {
+
+        for (var neighbour : neighbours) {
+            reverseOffsets[neighbour + 1]++;
+        }
+        for (var index = 0; index < codes.length; index++) {
+            reverseOffsets[index + 1] += reverseOffsets[index];
+        }
+
+        var nextEdge = Arrays.copyOf(reverseOffsets, codes.length);
+        for (var index = 0; index < codes.length; index++) {
+            for (var edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+                reverseNeighbours[nextEdge[neighbours[edge]]++] = index;
+            }
+        }
+    }
+
+    private void measureEdges() {
+
+        for (var index = 0; index < codes.length; index++) {
+            var latitude = Math.toRadians(latitudes[index]);
+            var longitude = Math.toRadians(longitudes[index]);
+            unitVectors[3 * index] = Math.cos(latitude) * Math.cos(longitude);
+            unitVectors[3 * index + 1] = Math.cos(latitude) * Math.sin(longitude);
+            unitVectors[3 * index + 2] = Math.sin(latitude);
+        }
+        for (var index = 0; index < codes.length; index++) {
+            for (var edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+                var length = distanceKm(index, neighbours[edge]);
+                edgeLengths[edge] = Double.isNaN(length) ? 0 : length;
+            }
+        }
+    }
+
+    public static BorderGraph of(List<Country> countries) {
+
+        var builder = new Builder(countries.size());
+        for (var country : countries) {
+            var latlng = country.latlng();
+            if (latlng != null && latlng.size() == 2 && latlng.get(0) != null && latlng.get(1) != null) {
+                builder.addCountry(country.cca3(), country.borders(), latlng.get(0), latlng.get(1));
+            } else {
+                builder.addCountry(country.cca3(), country.borders());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Rebuilds a graph from its CSR arrays as exposed by {@link #codeAt(int)}, {@link #offsets()},
+     * {@link #neighbours()}, {@link #latitude(int)} and {@link #longitude(int)}, e.g. when reading a
+     * stored snapshot. The arrays are taken over, not copied.
+     *
+     * @throws IllegalArgumentException when the arrays do not describe a valid graph
+     */
+    public static BorderGraph fromCsr(
+        String[] codes,
+        int[] offsets,
+        int[] neighbours,
+        double[] latitudes,
+        double[] longitudes) {
+
+        if (latitudes.length != codes.length || longitudes.length != codes.length) {
+            throw new IllegalArgumentException(
+                "Locations do not match %d countries".formatted(codes.length));
+        }
+        if (offsets.length != codes.length + 1
+            || offsets[0] != 0
+            || offsets[codes.length] != neighbours.length) {
+            throw new IllegalArgumentException("Offsets do not match %d countries and %d borders"
+                .formatted(codes.length, neighbours.length));
+        }
+        for (var index = 0; index < codes.length; index++) {
+            if (offsets[index] > offsets[index + 1]) {
+                throw new IllegalArgumentException("Offsets are not ascending at " + index);
+            }
+        }
+        for (var neighbour : neighbours) {
+            if (neighbour < 0 || neighbour >= codes.length) {
+                throw new IllegalArgumentException("Border points to unknown index " + neighbour);
+            }
+        }
+
+        var indexByCode = new HashMap<String, Integer>(codes.length * 2);
+        for (var index = 0; index < codes.length; index++) {
+            if (indexByCode.putIfAbsent(codes[index], index) != null) {
+                throw new IllegalArgumentException("Duplicate country code " + codes[index]);
+            }
+        }
+
+        return new BorderGraph(
+            codes, Collections.unmodifiableMap(indexByCode), offsets, neighbours, latitudes, longitudes);
+    }
+
+    private static boolean containsNeighbour(int[] neighbours, int from, int to, int neighbour) {
+
+        for (var edge = from; edge < to; edge++) {
+            if (neighbours[edge] == neighbour) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Union-find over all borders and the links of {@code extraLayers}, then relabels the roots densely
+     * in node order.
+     *
+     * @return number of components
+     */
+    private int labelComponents(int[] labels, EdgeLayer[] extraLayers) {
+
+        var parent = new int[codes.length];
+        for (var index = 0; index < codes.length; index++) {
+            parent[index] = index;
+        }
+        union(parent, offsets, neighbours);
+        for (var layer : extraLayers) {
+            union(parent, layer.offsets(), layer.neighbours());
+        }
+
+        var labelByRoot = new int[codes.length];
+        Arrays.fill(labelByRoot, NOT_FOUND);
+        var labelCount = 0;
+        for (var index = 0; index < codes.length; index++) {
+            var root = findRoot(parent, index);
+            if (labelByRoot[root] == NOT_FOUND) {
+                labelByRoot[root] = labelCount++;
+            }
+            labels[index] = labelByRoot[root];
+        }
+        return labelCount;
+    }
+
+    private void union(int[] parent, int[] edgeOffsets, int[] edgeNeighbours) {
+
+        for (var index = 0; index < codes.length; index++) {
+            for (var edge = edgeOffsets[index]; edge < edgeOffsets[index + 1]; edge++) {
+                var root = findRoot(parent, index);
+                var neighbourRoot = findRoot(parent, edgeNeighbours[edge]);
+                if (root != neighbourRoot) {
+                    parent[Math.max(root, neighbourRoot)] = Math.min(root, neighbourRoot);
+                }
+            }
+        }
+    }
+
+    private static int findRoot(int[] parent, int node) {
+
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    public int size() {
+
+        return codes.length;
+    }
+
+    public int edgeCount() {
+
+        return neighbours.length;
+    }
+
+    /**
+     * @return dense index of the country, or {@link #NOT_FOUND}
+     */
+    public int indexOf(String code) {
+
+        var index = indexByCode.get(code);
+        return index != null ? index : NOT_FOUND;
+    }
+
+    public String codeAt(int index) {
+
+        return codes[index];
+    }
+
+    public int degree(int index) {
+
+        return offsets[index + 1] - offsets[index];
+    }
+
+    public boolean hasLocation(int index) {
+
+        return !Double.isNaN(latitudes[index]) && !Double.isNaN(longitudes[index]);
+    }
+
+    /**
+     * @return whether every country has a location, i.e. {@link #lowerBoundKm} is a lower bound of any
+     *         route length
+     */
+    public boolean hasAllLocations() {
+
+        return allLocated;
+    }
+
+    /**
+     * @return centroid latitude in degrees, NaN when unknown
+     */
+    public double latitude(int index) {
+
+        return latitudes[index];
+    }
+
+    /**
+     * @return centroid longitude in degrees, NaN when unknown
+     */
+    public double longitude(int index) {
+
+        return longitudes[index];
+    }
+
+    /**
+     * Great-circle (haversine) distance between the centroids of two countries.
+     *
+     * @return kilometres, NaN when either location is unknown
+     */
+    public double distanceKm(int from, int to) {
+
+        var fromLatitude = Math.toRadians(latitudes[from]);
+        var toLatitude = Math.toRadians(latitudes[to]);
+        var sinHalfLatitude = Math.sin((toLatitude - fromLatitude) / 2);
+        var sinHalfLongitude = Math.sin(Math.toRadians(longitudes[to] - longitudes[from]) / 2);
+        var haversine = sinHalfLatitude * sinHalfLatitude
+            + Math.cos(fromLatitude) * Math.cos(toLatitude) * sinHalfLongitude * sinHalfLongitude;
+
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+
+    /**
+     * Straight-line (chord) distance between the centroids of two countries, which is never more than
+     * {@link #distanceKm}. It obeys the triangle inequality too, so it is a consistent A* heuristic over
+     * {@link #edgeLengths()}, and needs one square root instead of the haversine's trigonometry.
+     *
+     * @return kilometres, NaN when either location is unknown
+     */
+    public double lowerBoundKm(int from, int to) {
+
+        var dx = unitVectors[3 * from] - unitVectors[3 * to];
+        var dy = unitVectors[3 * from + 1] - unitVectors[3 * to + 1];
+        var dz = unitVectors[3 * from + 2] - unitVectors[3 * to + 2];
+
+        return EARTH_RADIUS_KM * Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    public int componentOf(int index) {
+
+        return componentIds[index];
+    }
+
+    public int componentCount() {
+
+        return componentCount;
+    }
+
+    public boolean sameComponent(int first, int second) {
+
+        return componentIds[first] == componentIds[second];
+    }
+
+    public int[] offsets() {
+
+        return offsets;
+    }
+
+    public int[] neighbours() {
+
+        return neighbours;
+    }
+
+    /**
+     * Length in kilometres of every border, parallel to {@link #neighbours()}.
+     */
+    public double[] edgeLengths() {
+
+        return edgeLengths;
+    }
+
+    public int[] reverseOffsets() {
+
+        return reverseOffsets;
+    }
+
+    /**
+     * Countries that list the node as a border, i.e. the sources of its incoming edges.
+     */
+    public int[] reverseNeighbours() {
+
+        return reverseNeighbours;
+    }
+
+    /**
+     * Returns a graph with the same countries and borders plus the given layers, replacing any layers
+     * this one has. Each link connects two countries in both directions; links naming unknown countries,
+     * repeated links and links that duplicate a border are dropped.
+     *
+     * @param linksByLayer code pairs per layer name, in the order the layers should be listed
+     */
+    public BorderGraph withLayers(Map<String, List<List<String>>> linksByLayer) {
+
+        var builtLayers = new EdgeLayer[linksByLayer.size()];
+        var position = 0;
+        for (var entry : linksByLayer.entrySet()) {
+            builtLayers[position++] = buildLayer(entry.getKey(), entry.getValue());
+        }
+        return new BorderGraph(this, builtLayers);
+    }
+
+    private EdgeLayer buildLayer(String name, List<List<String>> links) {
+
+        var linkFrom = new int[2 * links.size()];
+        var linkTo = new int[linkFrom.length];
+        var count = 0;
+        for (var link : links) {
+            var first = indexOf(link.get(0));
+            var second = indexOf(link.get(1));
+            if (first == NOT_FOUND || second == NOT_FOUND || first == second) {
+                continue;
+            }
+            linkFrom[count] = first;
+            linkTo[count++] = second;
+            linkFrom[count] = second;
+            linkTo[count++] = first;
+        }
+
+        // Bucket the link ends by source node, then drop repeats and borders in place
+        var bucketOffsets = new int[codes.length + 1];
+        for (var end = 0; end < count; end++) {
+            bucketOffsets[linkFrom[end] + 1]++;
+        }
+        for (var index = 0; index < codes.length; index++) {
+            bucketOffsets[index + 1] += bucketOffsets[index];
+        }
+        var layerNeighbours = new int[count];
+        var nextEdge = Arrays.copyOf(bucketOffsets, codes.length);
+        for (var end = 0; end < count; end++) {
+            layerNeighbours[nextEdge[linkFrom[end]]++] = linkTo[end];
+        }
+
+        var layerOffsets = new int[codes.length + 1];
+        var edge = 0;
+        for (var index = 0; index < codes.length; index++) {
+            layerOffsets[index] = edge;
+            for (var bucket = bucketOffsets[index]; bucket < bucketOffsets[index + 1]; bucket++) {
+                var neighbour = layerNeighbours[bucket];
+                if (!containsNeighbour(layerNeighbours, layerOffsets[index], edge, neighbour)
+                    && !containsNeighbour(neighbours, offsets[index], offsets[index + 1], neighbour)) {
+                    layerNeighbours[edge++] = neighbour;
+                }
+            }
+        }
+        layerOffsets[codes.length] = edge;
+        layerNeighbours = Arrays.copyOf(layerNeighbours, edge);
+
+        var lengths = new double[edge];
+        for (var index = 0; index < codes.length; index++) {
+            for (var layerEdge = layerOffsets[index]; layerEdge < layerOffsets[index + 1]; layerEdge++) {
+                var length = distanceKm(index, layerNeighbours[layerEdge]);
+                lengths[layerEdge] = Double.isNaN(length) ? 0 : length;
+            }
+        }
+        return new EdgeLayer(name, layerOffsets, layerNeighbours, lengths);
+    }
+
+    public int layerCount() {
+
+        return layers.length;
+    }
+
+    public EdgeLayer layer(int layerIndex) {
+
+        return layers[layerIndex];
+    }
+
+    /**
+     * @return index of the layer for {@link #layer(int)}, or {@link #NOT_FOUND}
+     */
+    public int layerIndexOf(String name) {
+
+        for (var index = 0; index < layers.length; index++) {
+            if (layers[index].name().equals(name)) {
+                return index;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Whether two countries are connected through borders and the links of all layers together. Countries
+     * for which this is {@code false} have no route whichever layers a request uses.
+     */
+    public boolean sameComponentWithLayers(int first, int second) {
+
+        return layeredComponentIds[first] == layeredComponentIds[second];
+    }
+
+    /**
+     * Builds the {@code cca3 -> borders} view used by
+     * {@link com.daniel.routingservice.repository.CountryRepository#getBordersByCountry()}. Both the map
+     * and its sets are unmodifiable and keep the graph's neighbour order.
+     */
+    public Map<String, Set<String>> toBordersByCountry() {
+
+        var bordersByCountry = new LinkedHashMap<String, Set<String>>(codes.length * 2);
+        for (var index = 0; index < codes.length; index++) {
+            var borders = new LinkedHashSet<String>(degree(index) * 2);
+            for (var edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+                borders.add(codes[neighbours[edge]]);
+            }
+            bordersByCountry.put(codes[index], Collections.unmodifiableSet(borders));
+        }
+        return Collections.unmodifiableMap(bordersByCountry);
+    }
+
+    /**
+     * Collects countries one by one, e.g. straight from a streaming parser, and builds the graph once all
+     * codes are known, since borders may refer to countries listed later. Countries without a code and
+     * repeated codes are ignored; the first occurrence wins.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> indexByCode;
+        private final List<String> codes;
+        private final List<String> borderCodes;
+        private int[] borderOffsets;
+        private double[] latitudes;
+        private double[] longitudes;
+
+        public Builder(int expectedCountries) {
+
+            indexByCode = new HashMap<>(expectedCountries * 2);
+            codes = new ArrayList<>(expectedCountries);
+            borderCodes = new ArrayList<>(expectedCountries * 4);
+            borderOffsets = new int[expectedCountries + 1];
+            latitudes = new double[expectedCountries];
+            longitudes = new double[expectedCountries];
+        }
+
+        public Builder addCountry(String code, List<String> borders) {
+
+            return addCountry(code, borders, Double.NaN, Double.NaN);
+        }
+
+        /**
+         * @param borders   codes of the neighbouring countries; only read during the call
+         * @param latitude  centroid latitude in degrees, NaN when unknown
+         * @param longitude centroid longitude in degrees, NaN when unknown
+         */
+        public Builder addCountry(String code, List<String> borders, double latitude, double longitude) {
+
+            if (code == null || indexByCode.putIfAbsent(code, codes.size()) != null) {
+                return this;
+            }
+
+            if (codes.size() == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, Math.max(1, latitudes.length * 2));
+                longitudes = Arrays.copyOf(longitudes, latitudes.length);
+            }
+            latitudes[codes.size()] = latitude;
+            longitudes[codes.size()] = longitude;
+            codes.add(code);
+            borderCodes.addAll(borders);
+            if (codes.size() == borderOffsets.length) {
+                borderOffsets = Arrays.copyOf(borderOffsets, borderOffsets.length * 2);
+            }
+            borderOffsets[codes.size()] = borderCodes.size();
+            return this;
+        }
+
+        public BorderGraph build() {
+
+            var codeArray = codes.toArray(String[]::new);
+            var offsets = new int[codeArray.length + 1];
+            var neighbours = new int[borderCodes.size()];
+            var edge = 0;
+            for (var index = 0; index < codeArray.length; index++) {
+                offsets[index] = edge;
+                for (var border = borderOffsets[index]; border < borderOffsets[index + 1]; border++) {
+                    var neighbour = indexByCode.get(borderCodes.get(border));
+                    if (neighbour != null
+                        && !containsNeighbour(neighbours, offsets[index], edge, neighbour)) {
+                        neighbours[edge++] = neighbour;
+                    }
+                }
+            }
+            offsets[codeArray.length] = edge;
+
+            return new BorderGraph(
+                codeArray,
+                Collections.unmodifiableMap(new HashMap<>(indexByCode)),
+                offsets,
+                edge == neighbours.length ? neighbours : Arrays.copyOf(neighbours, edge),
+                Arrays.copyOf(latitudes, codeArray.length),
+                Arrays.copyOf(longitudes, codeArray.length));
+        }
+    }
+}
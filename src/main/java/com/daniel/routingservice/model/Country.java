@@ -8,10 +8,18 @@ import java.util.List;
 public record Country(
     // Country Code Alpha-3
     String cca3,
-    List<String> borders) {
+    List<String> borders,
+    // Centroid as [latitude, longitude] in degrees, null when unknown
+    List<Double> latlng) {
 
     public Country {
 
         borders = borders != null ? List.copyOf(borders) : List.of();
+        latlng = latlng != null ? List.copyOf(latlng) : null;
     }
-}
\ No newline at end of file
+
+    public Country(String cca3, List<String> borders) {
+
+        this(cca3, borders, null);
+    }
+}
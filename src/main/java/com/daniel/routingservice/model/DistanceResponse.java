@@ -0,0 +1,16 @@
+package com.daniel.routingservice.model;
+
+/**
+ * Bounds of the shortest route between two countries, without the route itself: hops as integers for
+ * {@link RouteMetric#HOPS}, kilometres for {@link RouteMetric#DISTANCE}.
+ *
+ * @param exact whether both bounds are the length of the shortest route
+ */
+public record DistanceResponse(
+    String origin,
+    String destination,
+    RouteMetric metric,
+    boolean exact,
+    Number lowerBound,
+    Number upperBound) {
+}
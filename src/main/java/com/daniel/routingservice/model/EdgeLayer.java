@@ -0,0 +1,57 @@
+package com.daniel.routingservice.model;
+
+/**
+ * Extra connections of one kind (e.g. ferries or tunnels) between countries of a {@link BorderGraph},
+ * kept apart from the land borders in their own compressed sparse row adjacency over the graph's node
+ * indexes.
+ * <p>
+ * Searches that may use the layer walk its adjacency next to the borders', so any combination of layers
+ * is routed without building a merged graph. Links are stored in both directions and weigh the
+ * great-circle distance between the two centroids, as borders do, which keeps the A* heuristic of
+ * distance searches admissible.
+ * <p>
+ * Like the graph's, the arrays are shared, not copied; callers must treat them as read-only.
+ */
+public final class EdgeLayer {
+
+    private final String name;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final double[] edgeLengths;
+
+    EdgeLayer(String name, int[] offsets, int[] neighbours, double[] edgeLengths) {
+
+        this.name = name;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.edgeLengths = edgeLengths;
+    }
+
+    public String name() {
+
+        return name;
+    }
+
+    public int edgeCount() {
+
+        return neighbours.length;
+    }
+
+    public int[] offsets() {
+
+        return offsets;
+    }
+
+    public int[] neighbours() {
+
+        return neighbours;
+    }
+
+    /**
+     * Length in kilometres of every link, parallel to {@link #neighbours()}.
+     */
+    public double[] edgeLengths() {
+
+        return edgeLengths;
+    }
+}
@@ -0,0 +1,38 @@
+package com.daniel.routingservice.model;
+
+import java.util.List;
+
+/**
+ * Per-request restrictions of a route.
+ * <p>
+ * {@code avoid} and {@code layers} are kept sorted and without duplicates, so that requests masking the
+ * same countries over the same layers are equal (and share a cache entry) regardless of how they were
+ * listed.
+ *
+ * @param avoid  countries the route must not enter
+ * @param via    countries the route must pass through, in this order
+ * @param layers {@link EdgeLayer}s the route may use besides land borders
+ */
+public record RouteConstraints(List<String> avoid, List<String> via, List<String> layers) {
+
+    public static final int MAX_VIA = 10;
+
+    public static final RouteConstraints NONE = new RouteConstraints(List.of(), List.of(), List.of());
+
+    public RouteConstraints {
+
+        avoid = avoid.stream().distinct().sorted().toList();
+        via = List.copyOf(via);
+        layers = layers.stream().distinct().sorted().toList();
+    }
+
+    public RouteConstraints(List<String> avoid, List<String> via) {
+
+        this(avoid, via, List.of());
+    }
+
+    public boolean isEmpty() {
+
+        return avoid.isEmpty() && via.isEmpty() && layers.isEmpty();
+    }
+}
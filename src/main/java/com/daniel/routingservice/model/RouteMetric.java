@@ -0,0 +1,12 @@
+package com.daniel.routingservice.model;
+
+/**
+ * What a shortest route minimizes.
+ */
+public enum RouteMetric {
+
+    // Number of border crossings
+    HOPS,
+    // Great-circle distance between the centroids of consecutive countries
+    DISTANCE
+}
@@ -0,0 +1,8 @@
+package com.daniel.routingservice.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RoutePair(
+    @NotBlank String origin,
+    @NotBlank String destination) {
+}
@@ -1,11 +1,23 @@
 package com.daniel.routingservice.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
-public record RouteResponse(List<String> route) {
+/**
+ * @param distanceKm length of the route between country centroids, only set for
+ *                   {@link RouteMetric#DISTANCE} routes
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RouteResponse(List<String> route, Double distanceKm) {
 
     public RouteResponse {
 
         route = List.copyOf(route);
     }
-}
\ No newline at end of file
+
+    public RouteResponse(List<String> route) {
+
+        this(route, null);
+    }
+}
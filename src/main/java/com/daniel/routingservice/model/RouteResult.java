@@ -0,0 +1,26 @@
+package com.daniel.routingservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one pair in a multi-route request: either the {@code route} or the {@code error} is set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RouteResult(
+    String origin,
+    String destination,
+    List<String> route,
+    String error) {
+
+    public static RouteResult found(String origin, String destination, List<String> route) {
+
+        return new RouteResult(origin, destination, route, null);
+    }
+
+    public static RouteResult failed(String origin, String destination, RuntimeException exception) {
+
+        return new RouteResult(origin, destination, null, exception.getMessage());
+    }
+}
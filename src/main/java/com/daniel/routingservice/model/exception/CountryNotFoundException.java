@@ -1,9 +1,20 @@
 package com.daniel.routingservice.model.exception;
 
-public class CountryNotFoundException extends RuntimeException {
+/**
+ * Unknown country code.
+ */
+public class CountryNotFoundException extends RejectedRequestException {
+
+    private final String cca3;
 
     public CountryNotFoundException(String cca3) {
 
-        super("Country not found: '%s'".formatted(cca3));
+        super("Country not found: '" + cca3 + "'");
+        this.cca3 = cca3;
+    }
+
+    public String cca3() {
+
+        return cca3;
     }
-}
\ No newline at end of file
+}
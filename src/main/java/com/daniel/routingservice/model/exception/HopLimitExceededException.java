@@ -0,0 +1,35 @@
+package com.daniel.routingservice.model.exception;
+
+/**
+ * A land route exists, but it crosses more borders than the caller allowed.
+ */
+public class HopLimitExceededException extends RejectedRequestException {
+
+    private final String origin;
+    private final String destination;
+    private final int maxHops;
+
+    public HopLimitExceededException(String origin, String destination, int maxHops) {
+
+        super("Route from '" + origin + "' to '" + destination + "' crosses more than " + maxHops
+            + " borders");
+        this.origin = origin;
+        this.destination = destination;
+        this.maxHops = maxHops;
+    }
+
+    public String origin() {
+
+        return origin;
+    }
+
+    public String destination() {
+
+        return destination;
+    }
+
+    public int maxHops() {
+
+        return maxHops;
+    }
+}
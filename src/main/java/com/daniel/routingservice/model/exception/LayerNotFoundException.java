@@ -0,0 +1,20 @@
+package com.daniel.routingservice.model.exception;
+
+/**
+ * Unknown edge layer name.
+ */
+public class LayerNotFoundException extends RejectedRequestException {
+
+    private final String layer;
+
+    public LayerNotFoundException(String layer) {
+
+        super("Layer not found: '" + layer + "'");
+        this.layer = layer;
+    }
+
+    public String layer() {
+
+        return layer;
+    }
+}
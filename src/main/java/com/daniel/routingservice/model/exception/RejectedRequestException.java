@@ -0,0 +1,15 @@
+package com.daniel.routingservice.model.exception;
+
+/**
+ * A request the service cannot answer because of its input rather than a fault. These are expected and
+ * can arrive in floods, so the exception records no stack trace. Its message is fixed by the constructor,
+ * and without suppressed exceptions or a settable cause it holds no mutable state: one instance can be
+ * thrown any number of times, from any thread, which lets the route cache keep and rethrow it.
+ */
+public abstract class RejectedRequestException extends RuntimeException {
+
+    protected RejectedRequestException(String message) {
+
+        super(message, null, false, false);
+    }
+}
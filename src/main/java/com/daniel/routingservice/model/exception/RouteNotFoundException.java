@@ -1,9 +1,27 @@
 package com.daniel.routingservice.model.exception;
 
-public class RouteNotFoundException extends RuntimeException {
+/**
+ * No land route between two known countries.
+ */
+public class RouteNotFoundException extends RejectedRequestException {
+
+    private final String origin;
+    private final String destination;
 
     public RouteNotFoundException(String origin, String destination) {
 
-        super("No land route found from '%s' to '%s'".formatted(origin, destination));
+        super("No land route found from '" + origin + "' to '" + destination + "'");
+        this.origin = origin;
+        this.destination = destination;
+    }
+
+    public String origin() {
+
+        return origin;
+    }
+
+    public String destination() {
+
+        return destination;
     }
-}
\ No newline at end of file
+}
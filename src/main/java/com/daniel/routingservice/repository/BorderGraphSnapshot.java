@@ -0,0 +1,241 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary form of a {@link BorderGraph}, so that a restart does not have to parse the JSON data
+ * again.
+ * <p>
+ * Layout (big endian): a header with magic, the CRC32C of the JSON source the graph was built from and
+ * the array lengths, then the centroid latitudes and longitudes, the string table offsets, the CSR
+ * offsets and neighbours, the string table bytes, and finally the CRC32C of everything before it. The
+ * file is read through a memory mapping and the arrays are copied out in bulk.
+ * <p>
+ * A snapshot only ever replaces the JSON when it was built from exactly the same source bytes; a missing,
+ * stale or damaged file is reported as empty and the caller falls back to the JSON.
+ */
+final class BorderGraphSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(BorderGraphSnapshot.class);
+
+    private static final int MAGIC = 0x42475302; // "BGS" + format version 2
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + 3 * Integer.BYTES;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+
+    private BorderGraphSnapshot() {
+    }
+
+    static long sourceChecksum(byte[] source) {
+
+        var checksum = new CRC32C();
+        checksum.update(source);
+        return checksum.getValue();
+    }
+
+    /**
+     * @return the stored graph, or empty when there is no usable snapshot for the given source
+     */
+    static Optional<BorderGraph> read(Path path, long sourceChecksum) throws IOException {
+
+        var buffer = map(path, sourceChecksum);
+        if (buffer.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(decode(buffer.get(), buffer.get().capacity() - CHECKSUM_BYTES, path));
+    }
+
+    /**
+     * Maps the snapshot read-only after checking its checksum, format and source. The mapping stays valid
+     * when the file is replaced later, since {@link #write} moves a new file into place instead of
+     * overwriting this one.
+     *
+     * @return the whole file, or empty when there is no usable snapshot for the given source
+     */
+    static Optional<ByteBuffer> map(Path path, long sourceChecksum) throws IOException {
+
+        if (!Files.isRegularFile(path)) {
+            log.info("No graph snapshot at {}", path);
+            return Optional.empty();
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                log.warn("Ignoring graph snapshot {} with unexpected size {}", path, size);
+                return Optional.empty();
+            }
+
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            var contentBytes = (int) size - CHECKSUM_BYTES;
+            var checksum = new CRC32C();
+            checksum.update(buffer.slice(0, contentBytes));
+            if (checksum.getValue() != buffer.getLong(contentBytes)) {
+                log.warn("Ignoring graph snapshot {} with a wrong checksum", path);
+                return Optional.empty();
+            }
+            if (buffer.getInt(0) != MAGIC) {
+                log.warn("Ignoring graph snapshot {} in an unknown format", path);
+                return Optional.empty();
+            }
+            if (buffer.getLong(Integer.BYTES) != sourceChecksum) {
+                log.info("Graph snapshot {} is stale, the country data has changed", path);
+                return Optional.empty();
+            }
+
+            return Optional.of(buffer);
+        }
+    }
+
+    /**
+     * Byte positions of the sections of a snapshot returned by {@link #map}, for reading it in place.
+     */
+    static Sections sections(ByteBuffer buffer) {
+
+        var countries = buffer.getInt(Integer.BYTES + Long.BYTES);
+        var borders = buffer.getInt(Integer.BYTES + Long.BYTES + Integer.BYTES);
+        var latitudes = HEADER_BYTES;
+        var longitudes = latitudes + countries * Double.BYTES;
+        var stringOffsets = longitudes + countries * Double.BYTES;
+        var offsets = stringOffsets + (countries + 1) * Integer.BYTES;
+        var neighbours = offsets + (countries + 1) * Integer.BYTES;
+        return new Sections(countries, borders, latitudes, longitudes, offsets, neighbours);
+    }
+
+    record Sections(
+        int countries,
+        int borders,
+        int latitudes,
+        int longitudes,
+        int offsets,
+        int neighbours) {
+    }
+
+    private static BorderGraph decode(ByteBuffer buffer, int contentBytes, Path path) {
+
+        buffer.position(Integer.BYTES + Long.BYTES);
+        var countries = buffer.getInt();
+        var borders = buffer.getInt();
+        var stringBytes = buffer.getInt();
+        if (countries < 0 || borders < 0 || stringBytes < 0
+            || contentBytes != bodyBytes(countries, borders, stringBytes)) {
+            log.warn("Ignoring graph snapshot {} with inconsistent lengths", path);
+            return null;
+        }
+
+        var latitudes = readDoubles(buffer, countries);
+        var longitudes = readDoubles(buffer, countries);
+        var stringOffsets = readInts(buffer, countries + 1);
+        var offsets = readInts(buffer, countries + 1);
+        var neighbours = readInts(buffer, borders);
+        var strings = new byte[stringBytes];
+        buffer.get(strings);
+
+        try {
+            var codes = new String[countries];
+            for (var index = 0; index < countries; index++) {
+                var length = stringOffsets[index + 1] - stringOffsets[index];
+                codes[index] = new String(strings, stringOffsets[index], length, StandardCharsets.UTF_8);
+            }
+            return BorderGraph.fromCsr(codes, offsets, neighbours, latitudes, longitudes);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException exception) {
+            log.warn("Ignoring graph snapshot {} with invalid content: {}", path, exception.getMessage());
+            return null;
+        }
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int length) {
+
+        var values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+
+        var values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Writes the snapshot next to its final location first and then moves it into place, so concurrent
+     * readers (other instances sharing the file) see either the old or the new snapshot, never a partial
+     * one.
+     */
+    static void write(Path path, BorderGraph borderGraph, long sourceChecksum) throws IOException {
+
+        var countries = borderGraph.size();
+        var encodedCodes = new byte[countries][];
+        var stringOffsets = new int[countries + 1];
+        for (var index = 0; index < countries; index++) {
+            encodedCodes[index] = borderGraph.codeAt(index).getBytes(StandardCharsets.UTF_8);
+            stringOffsets[index + 1] = stringOffsets[index] + encodedCodes[index].length;
+        }
+
+        var borders = borderGraph.edgeCount();
+        var contentBytes = bodyBytes(countries, borders, stringOffsets[countries]);
+        var buffer = ByteBuffer.allocate(contentBytes + CHECKSUM_BYTES);
+        buffer.putInt(MAGIC)
+            .putLong(sourceChecksum)
+            .putInt(countries)
+            .putInt(borders)
+            .putInt(stringOffsets[countries]);
+        for (var index = 0; index < countries; index++) {
+            buffer.putDouble(borderGraph.latitude(index));
+        }
+        for (var index = 0; index < countries; index++) {
+            buffer.putDouble(borderGraph.longitude(index));
+        }
+        writeInts(buffer, stringOffsets);
+        writeInts(buffer, borderGraph.offsets());
+        writeInts(buffer, borderGraph.neighbours());
+        for (var encodedCode : encodedCodes) {
+            buffer.put(encodedCode);
+        }
+
+        var checksum = new CRC32C();
+        checksum.update(buffer.array(), 0, contentBytes);
+        buffer.putLong(checksum.getValue());
+
+        var directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            Files.move(
+                temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeInts(ByteBuffer buffer, int[] values) {
+
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    private static int bodyBytes(long countries, long borders, long stringBytes) {
+
+        var bytes = HEADER_BYTES
+            + 2 * countries * Double.BYTES
+            + (2 * (countries + 1) + borders) * Integer.BYTES
+            + stringBytes;
+        return bytes > Integer.MAX_VALUE - CHECKSUM_BYTES ? -1 : (int) bytes;
+    }
+}
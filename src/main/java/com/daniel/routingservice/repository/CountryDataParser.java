@@ -0,0 +1,145 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the country data token by token and feeds {@code cca3}, {@code borders} and {@code latlng}
+ * straight into a {@link BorderGraph.Builder}.
+ * <p>
+ * Every other field (names, translations, currencies, ...) is skipped with
+ * {@link JsonParser#skipChildren()}, so no values, maps or
+ * {@link com.daniel.routingservice.model.Country} records are created for them.
+ */
+final class CountryDataParser {
+
+    private static final int EXPECTED_COUNTRIES = 256;
+
+    private final JsonFactory jsonFactory;
+
+    CountryDataParser(JsonFactory jsonFactory) {
+
+        this.jsonFactory = jsonFactory;
+    }
+
+    BorderGraph parse(byte[] source) throws IOException {
+
+        try (var parser = jsonFactory.createParser(source)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of countries");
+            }
+
+            var builder = new BorderGraph.Builder(EXPECTED_COUNTRIES);
+            var country = new CountryFields();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                parseCountry(parser, country);
+                builder.addCountry(country.cca3, country.borders, country.latitude, country.longitude);
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a country object, got " + token);
+            }
+
+            return builder.build();
+        }
+    }
+
+    /**
+     * Reads one country object into {@code country}, leaving the parser on its closing brace.
+     */
+    private static void parseCountry(JsonParser parser, CountryFields country) throws IOException {
+
+        country.clear();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            var value = parser.nextToken();
+            switch (field) {
+                case "cca3" -> country.cca3 = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "borders" -> parseBorders(parser, value, country.borders);
+                case "latlng" -> parseLocation(parser, value, country);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static void parseBorders(
+        JsonParser parser,
+        JsonToken value,
+        List<String> borders) throws IOException {
+
+        if (value == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (value != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected borders to be an array, got " + value);
+        }
+        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+            borders.add(parser.getText());
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(
+                parser, "Expected border codes to be strings, got " + parser.currentToken());
+        }
+    }
+
+    /**
+     * Keeps the location only when it is exactly {@code [latitude, longitude]}; anything else leaves it
+     * unknown.
+     */
+    private static void parseLocation(
+        JsonParser parser,
+        JsonToken value,
+        CountryFields country) throws IOException {
+
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        var coordinates = new double[2];
+        var count = 0;
+        var valid = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of input in latlng");
+            }
+            if (token.isNumeric() && count < coordinates.length) {
+                coordinates[count++] = parser.getDoubleValue();
+            } else {
+                valid = false;
+                parser.skipChildren();
+            }
+        }
+        if (valid && count == coordinates.length) {
+            country.latitude = coordinates[0];
+            country.longitude = coordinates[1];
+        }
+    }
+
+    /**
+     * Fields of the country being parsed, reused for every object.
+     */
+    private static final class CountryFields {
+
+        private final List<String> borders = new ArrayList<>();
+        private String cca3;
+        private double latitude;
+        private double longitude;
+
+        private void clear() {
+
+            borders.clear();
+            cca3 = null;
+            latitude = Double.NaN;
+            longitude = Double.NaN;
+        }
+    }
+}
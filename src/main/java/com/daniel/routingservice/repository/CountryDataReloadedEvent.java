@@ -0,0 +1,12 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+
+/**
+ * Published after a new country data snapshot has been swapped in, so that derived state can follow it.
+ *
+ * @param borderGraph graph of the new snapshot
+ * @param version     snapshot version, increasing with every load
+ */
+public record CountryDataReloadedEvent(BorderGraph borderGraph, long version) {
+}
@@ -0,0 +1,103 @@
+package com.daniel.routingservice.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs country data reloads on a dedicated background thread, never on a request thread.
+ * <p>
+ * Reloads are triggered by an administrator through {@link #reload()} or, when
+ * {@code app.countries.watch-interval} is set, whenever the data file's modification time changes.
+ */
+@Component
+public class CountryDataReloader {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryDataReloader.class);
+
+    private final CountryRepositoryAdapter countryRepository;
+    private final Duration watchInterval;
+    private final ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "country-data-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private long lastModified;
+
+    public CountryDataReloader(
+        CountryRepositoryAdapter countryRepository,
+        @Value("${app.countries.watch-interval:#{null}}") Duration watchInterval) {
+
+        this.countryRepository = countryRepository;
+        this.watchInterval = watchInterval;
+    }
+
+    @PostConstruct
+    void startWatching() {
+
+        if (watchInterval == null) {
+            return;
+        }
+
+        lastModified = countryRepository.dataLastModified();
+        var delay = watchInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::reloadIfModified, delay, delay, TimeUnit.MILLISECONDS);
+        log.info("Watching country data for changes every {}", watchInterval);
+    }
+
+    /**
+     * @return completes with the new snapshot version once it is published
+     */
+    public CompletableFuture<Long> reload() {
+
+        return CompletableFuture.supplyAsync(this::reloadNow, executor);
+    }
+
+    /**
+     * Never throws: an exception would cancel all further polls. A failed reload is retried on the next
+     * poll, so a file caught half-written is picked up once it is complete even if its modification time
+     * does not change again.
+     */
+    void reloadIfModified() {
+
+        try {
+            var modified = countryRepository.dataLastModified();
+            if (modified == lastModified) {
+                return;
+            }
+
+            reloadNow();
+            lastModified = modified;
+        } catch (RuntimeException exception) {
+            log.error("Reloading changed country data failed, keeping the current snapshot", exception);
+        }
+    }
+
+    private long reloadNow() {
+
+        try {
+            return countryRepository.reload();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+
+        executor.shutdownNow();
+    }
+}
@@ -1,14 +1,27 @@
 package com.daniel.routingservice.repository;
 
+import com.daniel.routingservice.model.BorderGraph;
 import com.daniel.routingservice.model.Country;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 
 public interface CountryRepository {
 
     Optional<Country> findByCca3(String cca3);
 
+    /**
+     * Map view of {@link #getBorderGraph()}, kept for callers that work with country codes.
+     */
     Map<String, Set<String>> getBordersByCountry();
+
+    BorderGraph getBorderGraph();
+
+    /**
+     * Connected component of the country in the border graph; countries in different components
+     * have no land route between them.
+     */
+    OptionalInt findComponentId(String cca3);
 }
\ No newline at end of file
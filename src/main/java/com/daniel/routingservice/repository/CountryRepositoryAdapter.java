@@ -1,85 +1,266 @@
 package com.daniel.routingservice.repository;
 
+import com.daniel.routingservice.model.BorderGraph;
 import com.daniel.routingservice.model.Country;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Repository;
 
 import java.io.IOException;
-import java.util.List;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Keeps all country data in one immutable {@link CountryData} snapshot behind a volatile reference.
+ * <p>
+ * A reload builds the complete next snapshot (countries, graph, derived views) before publishing it with
+ * a single write, so lookups never lock and never observe a partially built graph. Callers that need
+ * several views consistent with each other should read {@link #getBorderGraph()} once and work with that
+ * instance.
+ * <p>
+ * With {@code app.countries.snapshot-path} set, the graph is read from a binary
+ * {@link BorderGraphSnapshot} when one exists for the current data file, and the snapshot is (re)written
+ * after every JSON parse. Countries are derived from the graph in both cases, so their borders only list
+ * known countries. The per-country views are served by the {@link CountryStore} chosen with
+ * {@code app.countries.store}; the {@code mapped} store reads them from the snapshot file and therefore
+ * needs {@code snapshot-path}. The graph itself is built on the heap with either store.
+ * <p>
+ * With {@code app.countries.layers-path} set, the {@link EdgeLayerFile} is read on every load as well and
+ * its layers are added to the graph; the snapshot only ever holds the borders.
+ */
 @Repository
 public class CountryRepositoryAdapter implements CountryRepository {
 
     private static final Logger log = LoggerFactory.getLogger(CountryRepositoryAdapter.class);
 
     private final ObjectMapper objectMapper;
+    private final CountryDataParser countryDataParser;
     private final ResourceLoader resourceLoader;
     private final String countriesDataPath;
+    private final Path snapshotPath;
+    private final String layersPath;
+    private final CountryStore.Type storeType;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock reloadLock = new ReentrantLock();
 
-    private Map<String, Set<String>> bordersByCountry;
-    private Map<String, Country> countryByCca3;
+    private volatile CountryData data;
 
     public CountryRepositoryAdapter(
         ObjectMapper objectMapper,
         ResourceLoader resourceLoader,
-        @Value("${app.countries.data-path}") String countriesDataPath) {
+        @Value("${app.countries.data-path}") String countriesDataPath,
+        @Value("${app.countries.snapshot-path:}") String snapshotPath,
+        @Value("${app.countries.layers-path:}") String layersPath,
+        @Value("${app.countries.store:heap}") String storeType,
+        ApplicationEventPublisher eventPublisher) {
 
         this.objectMapper = objectMapper;
+        this.countryDataParser = new CountryDataParser(objectMapper.getFactory());
         this.resourceLoader = resourceLoader;
         this.countriesDataPath = countriesDataPath;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.layersPath = layersPath == null || layersPath.isBlank() ? null : layersPath;
+        this.storeType = CountryStore.Type.valueOf(storeType.trim().toUpperCase(Locale.ROOT));
+        if (this.storeType == CountryStore.Type.MAPPED && this.snapshotPath == null) {
+            throw new IllegalArgumentException(
+                "app.countries.store=mapped needs app.countries.snapshot-path");
+        }
+        this.eventPublisher = eventPublisher;
     }
 
     @PostConstruct
     void initialize() throws IOException {
 
+        data = load(1);
+    }
+
+    /**
+     * Loads the data file again and swaps the new snapshot in. Reloads are serialized; readers are not
+     * blocked and keep using the previous snapshot until the swap.
+     *
+     * @return version of the new snapshot
+     */
+    public long reload() throws IOException {
+
+        // A lock rather than synchronized: loading reads files, which would pin a virtual thread's
+        // carrier
+        reloadLock.lock();
+        try {
+            var reloaded = load(data.version() + 1);
+            data = reloaded;
+            eventPublisher.publishEvent(
+                new CountryDataReloadedEvent(reloaded.borderGraph(), reloaded.version()));
+
+            return reloaded.version();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public long version() {
+
+        return data.version();
+    }
+
+    /**
+     * Last modification time of the data file, or 0 when the resource does not expose one (e.g. inside a
+     * jar).
+     */
+    long dataLastModified() {
+
+        try {
+            return resourceLoader.getResource(countriesDataPath).lastModified();
+        } catch (IOException exception) {
+            return 0;
+        }
+    }
+
+    private CountryData load(long version) throws IOException {
+
         log.info("Loading country data from: {}", countriesDataPath);
 
-        var countries = loadCountriesFromResource(countriesDataPath);
-        countryByCca3 = toCca3Map(countries, country -> country);
-        bordersByCountry = toCca3Map(countries, country -> Set.copyOf(country.borders()));
+        var startedAt = System.nanoTime();
+        var source = readResource(countriesDataPath);
+        var sourceChecksum = snapshotPath != null ? BorderGraphSnapshot.sourceChecksum(source) : 0;
+        var borderGraph = loadBorderGraph(source, sourceChecksum);
+        var store = createStore(borderGraph, sourceChecksum);
+        if (layersPath != null) {
+            log.info("Loading edge layers from: {}", layersPath);
+            borderGraph = EdgeLayerFile.apply(objectMapper, readResource(layersPath), borderGraph);
+        }
+
+        log.info("Loaded {} countries with {} borders in {} connected components into memory in {} ms"
+                + " (version {}, {} store)",
+            borderGraph.size(), borderGraph.edgeCount(), borderGraph.componentCount(),
+            (System.nanoTime() - startedAt) / 1_000_000, version,
+            storeType.name().toLowerCase(Locale.ROOT));
 
-        log.info("Loaded {} countries with border data into memory", countryByCca3.size());
+        return new CountryData(version, borderGraph, store);
     }
 
-    private List<Country> loadCountriesFromResource(String path) throws IOException {
+    private byte[] readResource(String path) throws IOException {
 
         var resource = resourceLoader.getResource(path);
         try (var inputStream = resource.getInputStream()) {
 
-            return objectMapper.readValue(inputStream, new TypeReference<>() {
-            });
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private BorderGraph loadBorderGraph(byte[] source, long sourceChecksum) throws IOException {
+
+        if (snapshotPath == null) {
+            return parseBorderGraph(source);
+        }
+
+        var snapshot = BorderGraphSnapshot.read(snapshotPath, sourceChecksum);
+        if (snapshot.isPresent()) {
+            log.info("Read border graph from snapshot {}", snapshotPath);
+            return snapshot.get();
         }
+
+        var borderGraph = parseBorderGraph(source);
+        try {
+            BorderGraphSnapshot.write(snapshotPath, borderGraph, sourceChecksum);
+            log.info("Wrote border graph snapshot {}", snapshotPath);
+        } catch (IOException exception) {
+            log.warn("Could not write border graph snapshot {}, next start will parse JSON again",
+                snapshotPath, exception);
+        }
+        return borderGraph;
+    }
+
+    /**
+     * The mapped store falls back to the heap when the snapshot it just read or wrote cannot be mapped,
+     * e.g. because writing it failed or another instance has replaced it with one of different data
+     * meanwhile.
+     */
+    private CountryStore createStore(BorderGraph borderGraph, long sourceChecksum) throws IOException {
+
+        if (storeType == CountryStore.Type.HEAP) {
+            return new HeapCountryStore(borderGraph);
+        }
+
+        var mapping = BorderGraphSnapshot.map(snapshotPath, sourceChecksum);
+        try {
+            if (mapping.isPresent()) {
+                return new MappedCountryStore(borderGraph, mapping.get());
+            }
+        } catch (IllegalArgumentException exception) {
+            log.warn("Cannot map graph snapshot {}: {}", snapshotPath, exception.getMessage());
+        }
+        log.warn("Keeping countries on the heap, graph snapshot {} is not usable", snapshotPath);
+        return new HeapCountryStore(borderGraph);
+    }
+
+    private BorderGraph parseBorderGraph(byte[] source) throws IOException {
+
+        var allocatedBefore = allocatedBytes();
+        var startedAt = System.nanoTime();
+
+        var borderGraph = countryDataParser.parse(source);
+
+        var elapsedMicros = (System.nanoTime() - startedAt) / 1_000;
+        var allocatedAfter = allocatedBytes();
+        log.info("Parsed {} KB of country data in {} ms, allocating {} KB",
+            source.length / 1024, elapsedMicros / 1000.0,
+            allocatedBefore < 0 || allocatedAfter < 0
+                ? "n/a"
+                : (allocatedAfter - allocatedBefore) / 1024);
+
+        return borderGraph;
     }
 
-    private <T> Map<String, T> toCca3Map(List<Country> countries, Function<Country, T> valueMapper) {
+    /**
+     * Bytes allocated so far by the current thread, or -1 when the JVM does not track it.
+     */
+    private static long allocatedBytes() {
 
-        return countries.stream()
-            .filter(country -> country.cca3() != null)
-            .collect(Collectors.toUnmodifiableMap(
-                Country::cca3,
-                valueMapper));
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+            && threads.isThreadAllocatedMemoryEnabled()
+            ? threads.getCurrentThreadAllocatedBytes()
+            : -1;
     }
 
     @Override
     public Optional<Country> findByCca3(String cca3) {
 
-        return Optional.ofNullable(countryByCca3.get(cca3));
+        return data.store().findByCca3(cca3);
     }
 
     @Override
     public Map<String, Set<String>> getBordersByCountry() {
 
-        return bordersByCountry;
+        return data.store().bordersByCountry();
+    }
+
+    @Override
+    public BorderGraph getBorderGraph() {
+
+        return data.borderGraph();
+    }
+
+    @Override
+    public OptionalInt findComponentId(String cca3) {
+
+        var borderGraph = data.borderGraph();
+        var index = borderGraph.indexOf(cca3);
+        return index != BorderGraph.NOT_FOUND
+            ? OptionalInt.of(borderGraph.componentOf(index))
+            : OptionalInt.empty();
+    }
+
+    private record CountryData(long version, BorderGraph borderGraph, CountryStore store) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.Country;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Backend of the per-country views of one loaded {@link com.daniel.routingservice.model.BorderGraph},
+ * selected with {@code app.countries.store}.
+ * <ul>
+ *     <li>{@code heap} - {@link HeapCountryStore}, every country and border set built up front as Java
+ *     objects</li>
+ *     <li>{@code mapped} - {@link MappedCountryStore}, read on demand from the memory-mapped graph
+ *     snapshot file</li>
+ * </ul>
+ * The graph itself always stays on the heap, since the searches iterate its arrays directly.
+ */
+interface CountryStore {
+
+    Optional<Country> findByCca3(String cca3);
+
+    Map<String, Set<String>> bordersByCountry();
+
+    enum Type {
+        HEAP,
+        MAPPED
+    }
+}
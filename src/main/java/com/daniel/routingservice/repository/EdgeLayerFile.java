@@ -0,0 +1,92 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the optional edge layer file ({@code app.countries.layers-path}): an object with one array of
+ * country code pairs per layer, e.g. {@code {"tunnel": [["GBR", "FRA"]], "ferry": [["GBR", "NLD"],
+ * ["FIN", "EST"]]}}.
+ * <p>
+ * Layer names are case-insensitive and kept in lower case. Every pair is a link usable in both
+ * directions; pairs naming countries that are not in the border graph are dropped with a warning, like
+ * borders to unknown codes.
+ */
+final class EdgeLayerFile {
+
+    private static final Logger log = LoggerFactory.getLogger(EdgeLayerFile.class);
+
+    private EdgeLayerFile() {
+    }
+
+    /**
+     * @return {@code borderGraph} with the layers of the file
+     * @throws IOException when the file is not valid JSON of the expected shape
+     */
+    static BorderGraph apply(
+        ObjectMapper objectMapper,
+        byte[] source,
+        BorderGraph borderGraph) throws IOException {
+
+        var root = objectMapper.readTree(source);
+        if (root == null || !root.isObject()) {
+            throw new IOException("Expected an object of edge layers");
+        }
+
+        var linksByLayer = new LinkedHashMap<String, List<List<String>>>();
+        for (var field : root.properties()) {
+            var name = field.getKey().trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty() || linksByLayer.containsKey(name)) {
+                throw new IOException("Blank or repeated edge layer name '" + field.getKey() + "'");
+            }
+            linksByLayer.put(name, parseLinks(name, field.getValue(), borderGraph));
+        }
+
+        var layered = borderGraph.withLayers(linksByLayer);
+        for (var layer = 0; layer < layered.layerCount(); layer++) {
+            log.info("Loaded edge layer '{}' with {} links", layered.layer(layer).name(),
+                layered.layer(layer).edgeCount() / 2);
+        }
+        return layered;
+    }
+
+    private static List<List<String>> parseLinks(String name, JsonNode links, BorderGraph borderGraph)
+        throws IOException {
+
+        if (!links.isArray()) {
+            throw new IOException(
+                "Expected edge layer '" + name + "' to be an array of country code pairs");
+        }
+
+        var parsed = new ArrayList<List<String>>(links.size());
+        for (var link : links) {
+            if (!link.isArray()
+                || link.size() != 2
+                || !link.get(0).isTextual()
+                || !link.get(1).isTextual()) {
+                throw new IOException(
+                    "Expected a pair of country codes in edge layer '" + name + "', got " + link);
+            }
+            var from = link.get(0).asText();
+            var to = link.get(1).asText();
+            if (borderGraph.indexOf(from) == BorderGraph.NOT_FOUND
+                || borderGraph.indexOf(to) == BorderGraph.NOT_FOUND) {
+                log.warn("Ignoring link {} - {} of edge layer '{}' to an unknown country",
+                    from, to, name);
+                continue;
+            }
+            parsed.add(List.of(from, to));
+        }
+        return parsed;
+    }
+}
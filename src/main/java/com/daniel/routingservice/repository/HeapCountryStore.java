@@ -0,0 +1,61 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds every {@link Country} and the whole {@code cca3 -> borders} map once per load, so lookups are a
+ * hash lookup and allocate nothing. Costs a few hundred bytes of heap per country.
+ */
+final class HeapCountryStore implements CountryStore {
+
+    private final Map<String, Country> countryByCca3;
+    private final Map<String, Set<String>> bordersByCountry;
+
+    HeapCountryStore(BorderGraph borderGraph) {
+
+        this.countryByCca3 = toCountryByCca3(borderGraph);
+        this.bordersByCountry = borderGraph.toBordersByCountry();
+    }
+
+    private static Map<String, Country> toCountryByCca3(BorderGraph borderGraph) {
+
+        var countryByCca3 = new HashMap<String, Country>(borderGraph.size() * 2);
+        var offsets = borderGraph.offsets();
+        var neighbours = borderGraph.neighbours();
+        for (var index = 0; index < borderGraph.size(); index++) {
+            var borders = new ArrayList<String>(borderGraph.degree(index));
+            for (var edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+                borders.add(borderGraph.codeAt(neighbours[edge]));
+            }
+            var latlng = borderGraph.hasLocation(index)
+                ? List.of(borderGraph.latitude(index), borderGraph.longitude(index))
+                : null;
+            countryByCca3.put(
+                borderGraph.codeAt(index), new Country(borderGraph.codeAt(index), borders, latlng));
+        }
+        // Not Map.copyOf: its open addressing degrades to long probe runs on sequential codes like
+        // generated ones
+        return Collections.unmodifiableMap(countryByCca3);
+    }
+
+    @Override
+    public Optional<Country> findByCca3(String cca3) {
+
+        return Optional.ofNullable(countryByCca3.get(cca3));
+    }
+
+    @Override
+    public Map<String, Set<String>> bordersByCountry() {
+
+        return bordersByCountry;
+    }
+}
@@ -0,0 +1,166 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads countries straight from the memory-mapped {@link BorderGraphSnapshot} file instead of keeping
+ * them as objects.
+ * <p>
+ * This store adds only the mapping to the heap; the pages of the file are loaded by the OS when a country
+ * is first read and may be dropped again under memory pressure. Every lookup decodes a fresh
+ * {@link Country} or border set, so a lookup allocates and costs more than in {@link HeapCountryStore},
+ * in exchange for no per-country objects. The {@link BorderGraph} the searches run on is not affected:
+ * its adjacency arrays, edge lengths and code index stay on the heap as with the heap store. Reads use
+ * absolute positions only and are thread-safe.
+ */
+final class MappedCountryStore implements CountryStore {
+
+    private final BorderGraph borderGraph;
+    private final ByteBuffer buffer;
+    private final BorderGraphSnapshot.Sections sections;
+    private final Map<String, Set<String>> bordersByCountry = new BordersByCountry();
+
+    /**
+     * @param buffer snapshot of exactly {@code borderGraph}, as returned by
+     *               {@link BorderGraphSnapshot#map}
+     * @throws IllegalArgumentException when the snapshot does not have the graph's size
+     */
+    MappedCountryStore(BorderGraph borderGraph, ByteBuffer buffer) {
+
+        this.borderGraph = borderGraph;
+        this.buffer = buffer;
+        this.sections = BorderGraphSnapshot.sections(buffer);
+        if (sections.countries() != borderGraph.size() || sections.borders() != borderGraph.edgeCount()) {
+            throw new IllegalArgumentException(
+                "Snapshot with %d countries and %d borders does not match the graph"
+                    .formatted(sections.countries(), sections.borders()));
+        }
+    }
+
+    @Override
+    public Optional<Country> findByCca3(String cca3) {
+
+        var index = borderGraph.indexOf(cca3);
+        if (index == BorderGraph.NOT_FOUND) {
+            return Optional.empty();
+        }
+
+        var from = edgeOffset(index);
+        var to = edgeOffset(index + 1);
+        var borders = new String[to - from];
+        for (var edge = from; edge < to; edge++) {
+            borders[edge - from] = neighbourCode(edge);
+        }
+
+        var latitude = buffer.getDouble(sections.latitudes() + index * Double.BYTES);
+        var longitude = buffer.getDouble(sections.longitudes() + index * Double.BYTES);
+        var latlng = Double.isNaN(latitude) || Double.isNaN(longitude)
+            ? null
+            : List.of(latitude, longitude);
+        return Optional.of(new Country(cca3, List.of(borders), latlng));
+    }
+
+    @Override
+    public Map<String, Set<String>> bordersByCountry() {
+
+        return bordersByCountry;
+    }
+
+    private int edgeOffset(int index) {
+
+        return buffer.getInt(sections.offsets() + index * Integer.BYTES);
+    }
+
+    private String neighbourCode(int edge) {
+
+        // Codes are interned in the graph already, so they are not decoded from the string table again
+        return borderGraph.codeAt(buffer.getInt(sections.neighbours() + edge * Integer.BYTES));
+    }
+
+    private Set<String> bordersOf(int index) {
+
+        var from = edgeOffset(index);
+        var to = edgeOffset(index + 1);
+        var borders = new LinkedHashSet<String>((to - from) * 2);
+        for (var edge = from; edge < to; edge++) {
+            borders.add(neighbourCode(edge));
+        }
+        return Collections.unmodifiableSet(borders);
+    }
+
+    /**
+     * Unmodifiable map view in graph order that decodes the border set of a country whenever it is read.
+     */
+    private final class BordersByCountry extends AbstractMap<String, Set<String>> {
+
+        @Override
+        public Set<String> get(Object key) {
+
+            var index = key instanceof String code ? borderGraph.indexOf(code) : BorderGraph.NOT_FOUND;
+            return index != BorderGraph.NOT_FOUND ? bordersOf(index) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+
+            return key instanceof String code && borderGraph.indexOf(code) != BorderGraph.NOT_FOUND;
+        }
+
+        @Override
+        public int size() {
+
+            return borderGraph.size();
+        }
+
+        @Override
+        public Set<Entry<String, Set<String>>> entrySet() {
+
+            return new AbstractSet<>() {
+
+                @Override
+                public Iterator<Entry<String, Set<String>>> iterator() {
+
+                    return new Iterator<>() {
+
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+
+                            return next < borderGraph.size();
+                        }
+
+                        @Override
+                        public Entry<String, Set<String>> next() {
+
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            var index = next++;
+                            return Map.entry(borderGraph.codeAt(index), bordersOf(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+
+                    return borderGraph.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the K shortest loopless routes between two countries by hop count, using Yen's algorithm.
+ * <p>
+ * Each next route branches off an already accepted one at a spur node: the root up to the spur node is
+ * kept, the root's other nodes and the borders taken from the spur node by accepted routes with the same
+ * root are blocked, and a BFS from the spur node finds the rest. The spur searches run on the thread's
+ * {@link SearchScratch}: blocked nodes are simply stamped as visited before the search starts, so no
+ * search state is allocated or cleared per spur.
+ */
+@Service
+public class AlternativeRoutingService {
+
+    private final CountryRepository countryRepository;
+
+    public AlternativeRoutingService(CountryRepository countryRepository) {
+
+        this.countryRepository = countryRepository;
+    }
+
+    /**
+     * @return up to {@code limit} routes, shortest first; routes of equal length keep the order they were
+     *         found in
+     * @throws CountryNotFoundException when either country does not exist
+     * @throws RouteNotFoundException   when there is no route at all
+     */
+    public List<List<String>> findRoutes(String origin, String destination, int limit) {
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var originIndex = borderGraph.indexOf(origin);
+        if (originIndex == BorderGraph.NOT_FOUND) {
+            throw new CountryNotFoundException(origin);
+        }
+        var destinationIndex = borderGraph.indexOf(destination);
+        if (destinationIndex == BorderGraph.NOT_FOUND) {
+            throw new CountryNotFoundException(destination);
+        }
+        if (originIndex == destinationIndex) {
+            return List.of(List.of(origin));
+        }
+        if (!borderGraph.sameComponent(originIndex, destinationIndex)) {
+            throw new RouteNotFoundException(origin, destination);
+        }
+
+        var first = spurSearch(borderGraph, new int[]{originIndex}, 0, new int[0], destinationIndex);
+        if (first == null) {
+            throw new RouteNotFoundException(origin, destination);
+        }
+
+        var accepted = new ArrayList<int[]>(limit);
+        accepted.add(first);
+        var seen = new HashSet<Route>();
+        seen.add(new Route(first, 0));
+        var candidates = new PriorityQueue<Route>(
+            Comparator.comparingInt((Route route) -> route.nodes().length)
+                .thenComparingLong(Route::sequence));
+        var sequence = 0L;
+
+        while (accepted.size() < limit) {
+            var previous = accepted.getLast();
+            for (var spur = 0; spur < previous.length - 1; spur++) {
+                var blockedNext = blockedNext(accepted, previous, spur);
+                var route = spurSearch(borderGraph, previous, spur, blockedNext, destinationIndex);
+                if (route != null && seen.add(new Route(route, 0))) {
+                    candidates.add(new Route(route, ++sequence));
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll().nodes());
+        }
+
+        return accepted.stream().map(route -> toCodes(borderGraph, route)).toList();
+    }
+
+    /**
+     * Nodes reached from {@code previous[spur]} by accepted routes that share the root
+     * {@code previous[0..spur]}.
+     */
+    private static int[] blockedNext(List<int[]> accepted, int[] previous, int spur) {
+
+        var blocked = new int[accepted.size()];
+        var count = 0;
+        for (var route : accepted) {
+            if (route.length > spur + 1 && Arrays.equals(route, 0, spur + 1, previous, 0, spur + 1)) {
+                blocked[count++] = route[spur + 1];
+            }
+        }
+        return Arrays.copyOf(blocked, count);
+    }
+
+    /**
+     * BFS from {@code root[spur]} to {@code destination} that avoids the root's earlier nodes and the
+     * borders from the spur node to {@code blockedNext}.
+     *
+     * @return the root joined with the spur route, or {@code null} when the destination cannot be reached
+     */
+    private static int[] spurSearch(
+        BorderGraph borderGraph,
+        int[] root,
+        int spur,
+        int[] blockedNext,
+        int destination) {
+
+        var offsets = borderGraph.offsets();
+        var neighbours = borderGraph.neighbours();
+        try (var scratch = SearchScratch.acquire(borderGraph.size())) {
+            var queue = scratch.queue;
+            var spurNode = root[spur];
+            var head = 0;
+            var tail = 0;
+
+            for (var position = 0; position < spur; position++) {
+                scratch.visit(root[position], root[position]);
+            }
+            scratch.visit(spurNode, spurNode);
+            queue[tail++] = spurNode;
+
+            while (head < tail) {
+                var current = queue[head++];
+
+                for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                    var neighbour = neighbours[edge];
+                    if (current == spurNode && contains(blockedNext, neighbour)) {
+                        continue;
+                    }
+                    if (!scratch.visit(neighbour, current)) {
+                        continue;
+                    }
+
+                    if (neighbour == destination) {
+                        return join(root, spur, scratch.predecessor, destination);
+                    }
+
+                    queue[tail++] = neighbour;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static boolean contains(int[] nodes, int node) {
+
+        for (var candidate : nodes) {
+            if (candidate == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] join(int[] root, int spur, int[] predecessor, int destination) {
+
+        var spurNode = root[spur];
+        var spurLength = 1;
+        for (var node = destination; node != spurNode; node = predecessor[node]) {
+            spurLength++;
+        }
+
+        var route = Arrays.copyOf(root, spur + spurLength);
+        var node = destination;
+        for (var position = route.length - 1; position > spur; position--) {
+            route[position] = node;
+            node = predecessor[node];
+        }
+        return route;
+    }
+
+    private static List<String> toCodes(BorderGraph borderGraph, int[] route) {
+
+        var codes = new String[route.length];
+        for (var position = 0; position < route.length; position++) {
+            codes[position] = borderGraph.codeAt(route[position]);
+        }
+        return List.of(codes);
+    }
+
+    /**
+     * Candidate route; equality ignores {@code sequence}, which only keeps equally long candidates in
+     * discovery order.
+     */
+    private record Route(int[] nodes, long sequence) {
+
+        @Override
+        public boolean equals(Object other) {
+
+            return other instanceof Route route && Arrays.equals(nodes, route.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Arrays.hashCode(nodes);
+        }
+    }
+}
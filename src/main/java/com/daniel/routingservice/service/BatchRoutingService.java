@@ -0,0 +1,206 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.RoutePair;
+import com.daniel.routingservice.model.RouteResult;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.HopLimitExceededException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Resolves many routes per call.
+ * <p>
+ * Pairs are grouped by origin and every group is answered from a single {@link ShortestPathTree},
+ * so N destinations of one origin cost one search instead of N. The same tree serves one-to-many
+ * requests. Large batches process the origin groups in parallel on the common fork-join pool.
+ */
+@Service
+public class BatchRoutingService {
+
+    private final CountryRepository countryRepository;
+    private final int parallelThreshold;
+
+    public BatchRoutingService(
+        CountryRepository countryRepository,
+        @Value("${app.routing.batch.parallel-threshold:1000}") int parallelThreshold) {
+
+        this.countryRepository = countryRepository;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * @return one result per pair, in request order; failures are reported per pair, never thrown
+     */
+    public List<RouteResult> findRoutes(List<RoutePair> pairs) {
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var results = new RouteResult[pairs.size()];
+        var groups = groupByOrigin(pairs).entrySet().stream();
+        if (pairs.size() >= parallelThreshold) {
+            groups = groups.parallel();
+        }
+        groups.forEach(group -> resolveGroup(
+            borderGraph, group.getKey(), group.getValue(), pairs, ShortestPathTree.UNLIMITED_HOPS,
+            (result, position) -> results[position] = result));
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Lazy form of {@link #findRoutes} for streaming responses. Origin groups are searched one at a time
+     * as the stream is consumed, so at most one group's results are held in memory; results come grouped
+     * by origin rather than in request order.
+     */
+    public Stream<RouteResult> streamRoutes(List<RoutePair> pairs) {
+
+        var borderGraph = countryRepository.getBorderGraph();
+
+        return groupByOrigin(pairs).entrySet().stream()
+            .flatMap(group -> {
+                var groupResults = new ArrayList<RouteResult>(group.getValue().size());
+                resolveGroup(
+                    borderGraph, group.getKey(), group.getValue(), pairs, ShortestPathTree.UNLIMITED_HOPS,
+                    (result, position) -> groupResults.add(result));
+                return groupResults.stream();
+            });
+    }
+
+    /**
+     * Routes from one origin to many destinations out of a single search tree.
+     *
+     * @param destinations restricts the result to these countries, each reported as route or error,
+     *                     a {@link HopLimitExceededException} when its route is longer than
+     *                     {@code maxHops}; when empty, every country reachable within {@code maxHops}
+     *                     is returned by hop count
+     * @param maxHops      maximal number of border crossings, or {@code null} for no limit
+     */
+    public List<RouteResult> findRoutesFrom(String origin, List<String> destinations, Integer maxHops) {
+
+        return streamRoutesFrom(origin, destinations, maxHops).toList();
+    }
+
+    /**
+     * Lazy form of {@link #findRoutesFrom}: the origin is validated and the tree is grown up front,
+     * routes are only materialized as the stream is consumed.
+     */
+    public Stream<RouteResult> streamRoutesFrom(
+        String origin,
+        List<String> destinations,
+        Integer maxHops) {
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var originIndex = borderGraph.indexOf(origin);
+        if (originIndex == BorderGraph.NOT_FOUND) {
+            throw new CountryNotFoundException(origin);
+        }
+        var hopLimit = maxHops != null ? maxHops : ShortestPathTree.UNLIMITED_HOPS;
+
+        if (!destinations.isEmpty()) {
+            var pairs = destinations.stream()
+                .map(destination -> new RoutePair(origin, destination))
+                .toList();
+            var positions = IntStream.range(0, pairs.size()).boxed().toList();
+            var results = new RouteResult[pairs.size()];
+            resolveGroup(
+                borderGraph, origin, positions, pairs, hopLimit,
+                (result, position) -> results[position] = result);
+            return Arrays.stream(results);
+        }
+
+        var tree = ShortestPathTree.grow(borderGraph, originIndex, hopLimit, null);
+        // Position 0 is the origin itself
+        return IntStream.range(1, tree.reachedCount())
+            .map(tree::reachedAt)
+            .mapToObj(destination -> RouteResult.found(
+                origin, borderGraph.codeAt(destination), tree.routeTo(destination)));
+    }
+
+    private static Map<String, List<Integer>> groupByOrigin(List<RoutePair> pairs) {
+
+        var positionsByOrigin = new LinkedHashMap<String, List<Integer>>();
+        for (var position = 0; position < pairs.size(); position++) {
+            positionsByOrigin
+                .computeIfAbsent(pairs.get(position).origin(), origin -> new ArrayList<>())
+                .add(position);
+        }
+        return positionsByOrigin;
+    }
+
+    /**
+     * Answers all pairs at {@code positions}, which share {@code origin}, and passes each result
+     * with its position to {@code sink}.
+     */
+    private void resolveGroup(
+        BorderGraph borderGraph,
+        String origin,
+        List<Integer> positions,
+        List<RoutePair> pairs,
+        int maxHops,
+        ObjIntConsumer<RouteResult> sink) {
+
+        var originIndex = borderGraph.indexOf(origin);
+        if (originIndex == BorderGraph.NOT_FOUND) {
+            var exception = new CountryNotFoundException(origin);
+            for (var position : positions) {
+                var destination = pairs.get(position).destination();
+                sink.accept(RouteResult.failed(origin, destination, exception), position);
+            }
+            return;
+        }
+
+        var targets = new BitSet(borderGraph.size());
+        for (var position : positions) {
+            var destinationIndex = borderGraph.indexOf(pairs.get(position).destination());
+            if (destinationIndex != BorderGraph.NOT_FOUND
+                && borderGraph.sameComponent(originIndex, destinationIndex)) {
+                targets.set(destinationIndex);
+            }
+        }
+        var tree = ShortestPathTree.grow(borderGraph, originIndex, maxHops, targets);
+        var unlimitedTree = tree;
+        if (maxHops != ShortestPathTree.UNLIMITED_HOPS) {
+            // Tells destinations beyond the limit from ones without any route
+            var missed = (BitSet) targets.clone();
+            for (var node = missed.nextSetBit(0); node >= 0; node = missed.nextSetBit(node + 1)) {
+                if (tree.reaches(node)) {
+                    missed.clear(node);
+                }
+            }
+            if (!missed.isEmpty()) {
+                unlimitedTree = ShortestPathTree.grow(
+                    borderGraph, originIndex, ShortestPathTree.UNLIMITED_HOPS, missed);
+            }
+        }
+
+        for (var position : positions) {
+            var destination = pairs.get(position).destination();
+            var destinationIndex = borderGraph.indexOf(destination);
+            if (destinationIndex == BorderGraph.NOT_FOUND) {
+                var exception = new CountryNotFoundException(destination);
+                sink.accept(RouteResult.failed(origin, destination, exception), position);
+            } else if (!unlimitedTree.reaches(destinationIndex)) {
+                var exception = new RouteNotFoundException(origin, destination);
+                sink.accept(RouteResult.failed(origin, destination, exception), position);
+            } else if (!tree.reaches(destinationIndex)) {
+                var exception = new HopLimitExceededException(origin, destination, maxHops);
+                sink.accept(RouteResult.failed(origin, destination, exception), position);
+            } else {
+                var route = tree.routeTo(destinationIndex);
+                sink.accept(RouteResult.found(origin, destination, route), position);
+            }
+        }
+    }
+}
@@ -1,80 +1,71 @@
 package com.daniel.routingservice.service;
 
-import com.daniel.routingservice.model.Country;
-import com.daniel.routingservice.model.exception.CountryNotFoundException;
-import com.daniel.routingservice.model.exception.RouteNotFoundException;
-import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.BorderGraph;
 import com.daniel.routingservice.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Service
-public class BfsRoutingService implements RoutingService {
+@RoutingEngine
+@ConditionalOnProperty(name = "app.routing.engine", havingValue = "bfs", matchIfMissing = true)
+public class BfsRoutingService extends GraphRoutingService {
 
-    private final CountryRepository countryRepository;
+    private static final Logger log = LoggerFactory.getLogger(BfsRoutingService.class);
 
-    public BfsRoutingService(CountryRepository countryRepository) {
+    public BfsRoutingService(
+        CountryRepository countryRepository,
+        RoutingMetrics routingMetrics,
+        DistanceOracle distanceOracle) {
 
-        this.countryRepository = countryRepository;
+        super(countryRepository, routingMetrics, distanceOracle);
     }
 
     @Override
-    public RouteResponse findRoute(String origin, String destination) {
+    protected List<String> search(BorderGraph borderGraph, int origin, int destination) {
 
-        var originCountry = getCountry(origin);
-        var destinationCountry = getCountry(destination);
+        var offsets = borderGraph.offsets();
+        var neighbours = borderGraph.neighbours();
+        try (var scratch = SearchScratch.acquire(borderGraph.size())) {
+            var queue = scratch.queue;
+            var head = 0;
+            var tail = 0;
 
-        var route = findShortestPath(originCountry.cca3(), destinationCountry.cca3());
+            scratch.visit(origin, origin);
+            queue[tail++] = origin;
 
-        return new RouteResponse(route);
-    }
-
-    private Country getCountry(String code) {
-
-        return countryRepository.findByCca3(code)
-            .orElseThrow(() -> new CountryNotFoundException(code));
-    }
-
-
-    private List<String> findShortestPath(String origin, String destination) {
-
-        if (origin.equals(destination)) {
-            return List.of(origin);
-        }
+            while (head < tail) {
+                var current = queue[head++];
 
-        var borderGraph = countryRepository.getBordersByCountry();
-        var queue = new ArrayDeque<List<String>>();
-        var visited = new HashSet<String>();
+                for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                    var neighbour = neighbours[edge];
+                    if (!scratch.visit(neighbour, current)) {
+                        continue;
+                    }
 
-        queue.add(List.of(origin));
-        visited.add(origin);
+                    if (neighbour == destination) {
+                        reportExpandedNodes(borderGraph, origin, destination, head);
+                        return scratch.routeTo(borderGraph, origin, destination);
+                    }
 
-        while (!queue.isEmpty()) {
-            var currentPath = queue.poll();
-            var currentCountry = currentPath.getLast();
-
-            for (var neighbour : borderGraph.getOrDefault(currentCountry, Set.of())) {
-                if (visited.contains(neighbour)) {
-                    continue;
+                    queue[tail++] = neighbour;
                 }
+            }
 
-                var newPath = new ArrayList<>(currentPath);
-                newPath.add(neighbour);
+            reportExpandedNodes(borderGraph, origin, destination, head);
+            return null;
+        }
+    }
 
-                if (neighbour.equals(destination)) {
-                    return List.copyOf(newPath);
-                }
+    private void reportExpandedNodes(BorderGraph borderGraph, int origin, int destination, int expanded) {
 
-                visited.add(neighbour);
-                queue.add(newPath);
-            }
+        recordExpandedNodes(expanded);
+        if (log.isDebugEnabled()) {
+            log.debug("BFS {} -> {} expanded {} nodes",
+                borderGraph.codeAt(origin), borderGraph.codeAt(destination), expanded);
         }
-
-        throw new RouteNotFoundException(origin, destination);
     }
-}
\ No newline at end of file
+}
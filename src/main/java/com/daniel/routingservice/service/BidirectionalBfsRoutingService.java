@@ -0,0 +1,155 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Breadth-first search run from both ends at once.
+ * <p>
+ * Each step expands one whole level of whichever frontier is currently smaller: the origin side follows
+ * borders forwards, the destination side follows them backwards. The first country reached by both sides
+ * joins a shortest route, so long routes only explore two balls of half the radius.
+ */
+@Service
+@RoutingEngine
+@ConditionalOnProperty(name = "app.routing.engine", havingValue = "bidirectional")
+public class BidirectionalBfsRoutingService extends GraphRoutingService {
+
+    private static final Logger log = LoggerFactory.getLogger(BidirectionalBfsRoutingService.class);
+
+    private static final int NO_MEETING = -1;
+
+    public BidirectionalBfsRoutingService(
+        CountryRepository countryRepository,
+        RoutingMetrics routingMetrics,
+        DistanceOracle distanceOracle) {
+
+        super(countryRepository, routingMetrics, distanceOracle);
+    }
+
+    @Override
+    protected List<String> search(BorderGraph borderGraph, int originIndex, int destinationIndex) {
+
+        try (var forward = SearchScratch.acquire(borderGraph.size());
+             var backward = SearchScratch.acquireBackward(borderGraph.size())) {
+            forward.visit(originIndex, originIndex);
+            backward.visit(destinationIndex, destinationIndex);
+            forward.queue[0] = originIndex;
+            backward.queue[0] = destinationIndex;
+
+            // Frontiers are the queue slices [head, tail)
+            int forwardHead = 0, forwardTail = 1;
+            int backwardHead = 0, backwardTail = 1;
+            var expanded = 0;
+            var meeting = NO_MEETING;
+
+            while (meeting == NO_MEETING && forwardHead < forwardTail && backwardHead < backwardTail) {
+                if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                    var levelEnd = forwardTail;
+                    expanded += levelEnd - forwardHead;
+                    meeting = expandLevel(forward, backward,
+                        borderGraph.offsets(), borderGraph.neighbours(), forwardHead, levelEnd);
+                    forwardHead = levelEnd;
+                    forwardTail = forward.tail;
+                } else {
+                    var levelEnd = backwardTail;
+                    expanded += levelEnd - backwardHead;
+                    meeting = expandLevel(backward, forward,
+                        borderGraph.reverseOffsets(), borderGraph.reverseNeighbours(),
+                        backwardHead, levelEnd);
+                    backwardHead = levelEnd;
+                    backwardTail = backward.tail;
+                }
+            }
+
+            recordExpandedNodes(expanded);
+            if (log.isDebugEnabled()) {
+                log.debug("Bidirectional search {} -> {} expanded {} nodes",
+                    borderGraph.codeAt(originIndex), borderGraph.codeAt(destinationIndex), expanded);
+            }
+
+            if (meeting == NO_MEETING) {
+                return null;
+            }
+
+            return joinRoute(borderGraph, forward, backward, originIndex, destinationIndex, meeting);
+        }
+    }
+
+    /**
+     * Expands the frontier {@code queue[head, levelEnd)} of {@code side}, appending the next level behind
+     * it.
+     *
+     * @return the first node already visited by {@code other}, or {@link #NO_MEETING}
+     */
+    private static int expandLevel(
+        SearchScratch side,
+        SearchScratch other,
+        int[] offsets,
+        int[] neighbours,
+        int head,
+        int levelEnd) {
+
+        var queue = side.queue;
+        var tail = side.tail = levelEnd;
+
+        for (var position = head; position < levelEnd; position++) {
+            var current = queue[position];
+
+            for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                var neighbour = neighbours[edge];
+                if (!side.visit(neighbour, current)) {
+                    continue;
+                }
+
+                if (other.isVisited(neighbour)) {
+                    side.tail = tail;
+                    return neighbour;
+                }
+
+                queue[tail++] = neighbour;
+            }
+        }
+
+        side.tail = tail;
+        return NO_MEETING;
+    }
+
+    private static List<String> joinRoute(
+        BorderGraph borderGraph,
+        SearchScratch forward,
+        SearchScratch backward,
+        int origin,
+        int destination,
+        int meeting) {
+
+        var forwardHops = 0;
+        for (var node = meeting; node != origin; node = forward.predecessor[node]) {
+            forwardHops++;
+        }
+        var backwardHops = 0;
+        for (var node = meeting; node != destination; node = backward.predecessor[node]) {
+            backwardHops++;
+        }
+
+        var route = new String[forwardHops + 1 + backwardHops];
+        var node = meeting;
+        for (var position = forwardHops; position >= 0; position--) {
+            route[position] = borderGraph.codeAt(node);
+            node = forward.predecessor[node];
+        }
+        node = meeting;
+        for (var position = forwardHops + 1; position < route.length; position++) {
+            node = backward.predecessor[node];
+            route[position] = borderGraph.codeAt(node);
+        }
+
+        return List.of(route);
+    }
+}
@@ -0,0 +1,89 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryDataReloadedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Serves repeated origin/destination pairs from a bounded cache in front of the routing engine.
+ * <p>
+ * Unreachable pairs are cached too, by keeping the {@link RouteNotFoundException} and rethrowing it, so
+ * that a repeated invalid pair does not scan its whole component again. Unknown countries are not cached:
+ * they are cheap to reject and would let arbitrary input fill the cache.
+ * <p>
+ * Misses are searched on the requesting thread outside the cache's lock, see {@link CallerLoads}. The
+ * cache is cleared whenever the country data is reloaded, before any cache built on top of it, see
+ * {@link #RELOAD_ORDER}.
+ */
+public class CachingRoutingService implements RoutingService {
+
+    /**
+     * Order of the reload listener. Caches that load through this service clear themselves after it:
+     * cleared first, they could load a stale route from here again before this cache is cleared.
+     */
+    public static final int RELOAD_ORDER = 0;
+
+    private final RoutingService delegate;
+    // Value is either a RouteResponse or a RouteNotFoundException
+    private final AsyncCache<RouteKey, Object> cache;
+    private final boolean cacheNotFound;
+
+    public CachingRoutingService(
+        RoutingService delegate,
+        AsyncCache<RouteKey, Object> cache,
+        boolean cacheNotFound) {
+
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cacheNotFound = cacheNotFound;
+    }
+
+    @Override
+    public RouteResponse findRoute(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints) {
+
+        var cached = CallerLoads.get(
+            cache, new RouteKey(origin, destination, metric, constraints), this::load);
+        if (cached instanceof RouteNotFoundException routeNotFoundException) {
+            throw routeNotFoundException;
+        }
+        return (RouteResponse) cached;
+    }
+
+    @EventListener
+    @Order(RELOAD_ORDER)
+    void onCountryDataReloaded(CountryDataReloadedEvent event) {
+
+        cache.synchronous().invalidateAll();
+    }
+
+    private Object load(RouteKey key) {
+
+        try {
+            return delegate.findRoute(key.origin(), key.destination(), key.metric(), key.constraints());
+        } catch (RouteNotFoundException routeNotFoundException) {
+            if (!cacheNotFound) {
+                throw routeNotFoundException;
+            }
+            return routeNotFoundException;
+        }
+    }
+
+    /**
+     * @param constraints canonical form of the request's mask, so equal avoid/via sets share an entry
+     */
+    public record RouteKey(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints) {
+    }
+}
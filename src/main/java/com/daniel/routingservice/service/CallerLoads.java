@@ -0,0 +1,58 @@
+package com.daniel.routingservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Cache lookups that load a miss on the calling thread, outside Caffeine's map lock.
+ * <p>
+ * {@link Cache#get(Object, Function)} runs the loader inside {@code ConcurrentHashMap.compute}, under the
+ * monitor of the key's bin; a virtual thread that holds or waits for it pins its carrier for as long as
+ * the search takes. Here only an incomplete future is put into the map under that lock. The caller that
+ * put it runs the loader and completes the future; concurrent callers for the same key park on the
+ * future, which does not pin.
+ * <p>
+ * A failed load completes the future with {@code null} rather than exceptionally: Caffeine drops the
+ * entry either way, but logs every exceptional completion at WARN, which would log each rejected request.
+ * The failure is thrown to the caller that ran the loader, and callers that waited on it run the loader
+ * themselves. A load still running when the cache is cleared completes a future that is no longer in it,
+ * so a reload never leaves a stale entry behind.
+ */
+public final class CallerLoads {
+
+    private CallerLoads() {
+    }
+
+    /**
+     * @param loader never returns {@code null}
+     * @return the cached value for {@code key}, loaded by {@code loader} on this thread when absent
+     * @throws RuntimeException whatever {@code loader} threw
+     */
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+
+        while (true) {
+            var loading = new CompletableFuture<V>();
+            var future = cache.get(key, (ignored, executor) -> loading);
+            if (future != loading) {
+                var value = future.join();
+                if (value != null) {
+                    return value;
+                }
+                continue;
+            }
+
+            V value;
+            try {
+                value = loader.apply(key);
+            } catch (RuntimeException | Error exception) {
+                loading.complete(null);
+                throw exception;
+            }
+            loading.complete(value);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.DistanceResponse;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Answers how far apart two countries are without building the route, from indexes built as the
+ * {@code distance-oracle} {@link PreprocessingStage}.
+ * <p>
+ * Graphs of at most {@code app.routing.distance-oracle.exact-max-countries} countries get an exact matrix
+ * of the hops between every pair, one BFS per country on the preprocessing pool, kept as {@code n^2}
+ * shorts. Larger graphs, and every distance in kilometres, are answered from
+ * {@code app.routing.distance-oracle.landmarks} {@link Landmarks} instead: a lower and an upper bound
+ * that meet for many pairs and are marked {@code exact} when they do. Kilometre lower bounds also use the
+ * straight line between the centroids when every country has one.
+ * <p>
+ * The same landmarks are the A* heuristic of every route search by {@link RouteMetric#DISTANCE}, see
+ * {@link #landmarksFor}. On graphs too large for the exact matrix they also guide searches by
+ * {@link RouteMetric#HOPS} when their hop bounds prove tight on a sample of pairs, see
+ * {@link #hopLandmarksFor}; on small-world graphs the bounds are loose and the engines' own searches are
+ * faster.
+ * <p>
+ * Until the indexes are built, and for pairs that no landmark connects, the answer is exact from a plain
+ * search.
+ */
+@Service
+public class DistanceOracle implements PreprocessingStage {
+
+    private static final Logger log = LoggerFactory.getLogger(DistanceOracle.class);
+
+    private static final short UNREACHABLE = -1;
+    // Relative gap below which kilometre bounds count as equal, to absorb rounding of the sums
+    private static final double EXACT_TOLERANCE = 1e-9;
+    // Average share of the true hops the landmarks' lower bound must reach to guide hop-count searches.
+    // Grids and planar graphs clear it and power-law graphs do not; the measured values are in the
+    // README's table of guided hop search on the ScalingBenchmark graphs
+    private static final double MIN_HOPS_BOUND_TIGHTNESS = 0.8;
+
+    private final CountryRepository countryRepository;
+    private final int exactMaxCountries;
+    private final int landmarkCount;
+
+    private volatile Index index;
+
+    public DistanceOracle(
+        CountryRepository countryRepository,
+        @Value("${app.routing.distance-oracle.exact-max-countries:4096}") int exactMaxCountries,
+        @Value("${app.routing.distance-oracle.landmarks:8}") int landmarkCount) {
+
+        if (exactMaxCountries < 0 || exactMaxCountries > Short.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "app.routing.distance-oracle.exact-max-countries must be between 0 and %d, got %d"
+                    .formatted(Short.MAX_VALUE, exactMaxCountries));
+        }
+        if (landmarkCount < 0) {
+            throw new IllegalArgumentException(
+                "app.routing.distance-oracle.landmarks must not be negative, got " + landmarkCount);
+        }
+        this.countryRepository = countryRepository;
+        this.exactMaxCountries = exactMaxCountries;
+        this.landmarkCount = landmarkCount;
+    }
+
+    @Override
+    public String name() {
+
+        return "distance-oracle";
+    }
+
+    @Override
+    public void build(BorderGraph borderGraph, ForkJoinPool pool) {
+
+        var startedAt = System.nanoTime();
+        var size = borderGraph.size();
+
+        short[] hops = null;
+        if (size <= exactMaxCountries) {
+            var matrix = new short[size * size];
+            PerSourceTask.forEach(pool, size, () -> {
+                var queue = new int[size];
+                return origin -> hopsFrom(borderGraph, origin, queue, matrix);
+            });
+            hops = matrix;
+        }
+        var landmarks = landmarkCount > 0 ? Landmarks.select(borderGraph, landmarkCount, pool) : null;
+        var hopsBoundTightness = hops == null && landmarks != null
+            ? landmarks.hopsBoundTightness(borderGraph, pool)
+            : 0;
+        var guidesHops = hopsBoundTightness >= MIN_HOPS_BOUND_TIGHTNESS;
+
+        index = new Index(borderGraph, hops, landmarks, guidesHops);
+        log.info("Built distance oracle for {} countries in {} ms: exact hops {}, landmarks {},"
+                + " hop bounds {}",
+            size, (System.nanoTime() - startedAt) / 1_000_000, hops != null,
+            landmarks != null ? landmarks.codes(borderGraph) : "none",
+            hops != null || landmarks == null
+                ? "unused"
+                : "%.2f tight%s".formatted(
+                    hopsBoundTightness, guidesHops ? ", guiding hop searches" : ""));
+    }
+
+    private static void hopsFrom(BorderGraph borderGraph, int origin, int[] queue, short[] matrix) {
+
+        var hops = Landmarks.hopsFrom(borderGraph, origin, queue);
+        var row = origin * hops.length;
+        for (var node = 0; node < hops.length; node++) {
+            // Fits: a route has fewer hops than there are countries
+            matrix[row + node] = (short) hops[node];
+        }
+    }
+
+    /**
+     * @return the landmarks built for {@code borderGraph}, or {@code null} when there are none for it
+     *         (yet)
+     */
+    Landmarks landmarksFor(BorderGraph borderGraph) {
+
+        var current = index;
+        return current != null && current.borderGraph() == borderGraph ? current.landmarks() : null;
+    }
+
+    /**
+     * @return the landmarks built for {@code borderGraph} when it has more than
+     *         {@code app.routing.distance-oracle.exact-max-countries} countries and their hop bounds are
+     *         tight enough to guide a {@link HopSearch}, or {@code null}
+     */
+    Landmarks hopLandmarksFor(BorderGraph borderGraph) {
+
+        var current = index;
+        return current != null && current.borderGraph() == borderGraph && current.guidesHops()
+            ? current.landmarks()
+            : null;
+    }
+
+    /**
+     * @throws CountryNotFoundException when either country is unknown
+     * @throws RouteNotFoundException   when there is no route from {@code origin} to {@code destination}
+     */
+    public DistanceResponse findDistance(String origin, String destination, RouteMetric metric) {
+
+        var originCode = getCountry(origin);
+        var destinationCode = getCountry(destination);
+        if (originCode.equals(destinationCode)) {
+            return metric == RouteMetric.HOPS
+                ? new DistanceResponse(originCode, destinationCode, metric, true, 0, 0)
+                : new DistanceResponse(originCode, destinationCode, metric, true, 0.0, 0.0);
+        }
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var originIndex = borderGraph.indexOf(originCode);
+        var destinationIndex = borderGraph.indexOf(destinationCode);
+        if (originIndex == BorderGraph.NOT_FOUND
+            || destinationIndex == BorderGraph.NOT_FOUND
+            || !borderGraph.sameComponent(originIndex, destinationIndex)) {
+            throw new RouteNotFoundException(originCode, destinationCode);
+        }
+
+        var current = index;
+        if (current != null && current.borderGraph() != borderGraph) {
+            current = null;
+        }
+        return switch (metric) {
+            case HOPS -> findHops(
+                borderGraph, current, originCode, destinationCode, originIndex, destinationIndex);
+            case DISTANCE ->
+                findKilometres(
+                    borderGraph, current, originCode, destinationCode, originIndex, destinationIndex);
+        };
+    }
+
+    private String getCountry(String code) {
+
+        return countryRepository.findByCca3(code)
+            .orElseThrow(() -> new CountryNotFoundException(code))
+            .cca3();
+    }
+
+    private static DistanceResponse findHops(
+        BorderGraph borderGraph,
+        Index index,
+        String origin,
+        String destination,
+        int originIndex,
+        int destinationIndex) {
+
+        if (index != null && index.hops() != null) {
+            var hops = index.hops()[originIndex * borderGraph.size() + destinationIndex];
+            if (hops == UNREACHABLE) {
+                throw new RouteNotFoundException(origin, destination);
+            }
+            return new DistanceResponse(
+                origin, destination, RouteMetric.HOPS, true, (int) hops, (int) hops);
+        }
+
+        var landmarks = index != null ? index.landmarks() : null;
+        var upper = landmarks != null
+            ? landmarks.hopsUpperBound(originIndex, destinationIndex)
+            : Integer.MAX_VALUE;
+        if (upper == Integer.MAX_VALUE) {
+            var queue = new int[borderGraph.size()];
+            var hops = Landmarks.hopsFrom(borderGraph, originIndex, queue)[destinationIndex];
+            if (hops == Landmarks.UNREACHED) {
+                throw new RouteNotFoundException(origin, destination);
+            }
+            return new DistanceResponse(origin, destination, RouteMetric.HOPS, true, hops, hops);
+        }
+
+        var lower = Math.max(1, landmarks.hopsLowerBound(originIndex, destinationIndex));
+        return new DistanceResponse(origin, destination, RouteMetric.HOPS, lower == upper, lower, upper);
+    }
+
+    private static DistanceResponse findKilometres(
+        BorderGraph borderGraph,
+        Index index,
+        String origin,
+        String destination,
+        int originIndex,
+        int destinationIndex) {
+
+        var landmarks = index != null ? index.landmarks() : null;
+        var upper = landmarks != null
+            ? landmarks.upperBoundKm(originIndex, destinationIndex)
+            : Double.POSITIVE_INFINITY;
+        if (upper == Double.POSITIVE_INFINITY) {
+            var route = DistanceSearch.search(borderGraph, originIndex, destinationIndex);
+            if (route == null) {
+                throw new RouteNotFoundException(origin, destination);
+            }
+            return new DistanceResponse(
+                origin, destination, RouteMetric.DISTANCE, true, route.distanceKm(), route.distanceKm());
+        }
+
+        var lower = landmarks.lowerBoundKm(originIndex, destinationIndex);
+        if (borderGraph.hasAllLocations()) {
+            lower = Math.max(lower, borderGraph.lowerBoundKm(originIndex, destinationIndex));
+        }
+        // Rounding may put the bounds the wrong way round by an ulp when they meet
+        lower = Math.min(lower, upper);
+        var exact = upper - lower <= EXACT_TOLERANCE * upper;
+        return new DistanceResponse(
+            origin, destination, RouteMetric.DISTANCE, exact, exact ? upper : lower, upper);
+    }
+
+    /**
+     * @param hops      {@code hops[origin * size + destination]}, {@code -1} when unreachable;
+     *                  {@code null} when the graph is too large
+     * @param landmarks {@code null} when none are configured
+     * @param guidesHops whether {@code landmarks} guide searches by hops
+     */
+    private record Index(BorderGraph borderGraph, short[] hops, Landmarks landmarks, boolean guidesHops) {
+    }
+}
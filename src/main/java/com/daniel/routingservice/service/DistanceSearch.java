@@ -0,0 +1,380 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.EdgeLayer;
+import com.daniel.routingservice.model.RouteResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A* search for the route with the shortest great-circle length over {@link BorderGraph#edgeLengths()}.
+ * <p>
+ * The heuristic is the straight-line distance from a country's centroid to the destination's
+ * ({@link BorderGraph#lowerBoundKm}). It is never longer than the great-circle length of any border or
+ * route and obeys the triangle inequality, so it never overestimates and is consistent: the first time a
+ * node is taken from the queue its distance is final. When some country has no location its borders weigh
+ * 0, which breaks that bound, so the heuristic is switched off and the search degrades to plain Dijkstra.
+ * {@link EdgeLayer} links are weighed the same way as borders, so the heuristic stays valid whichever
+ * layers a search walks besides the borders.
+ * <p>
+ * Given the {@link Landmarks} of the graph, the heuristic is the larger of that bound and the landmarks'
+ * lower bound, which follows the route network rather than a straight line and so prunes far more on long
+ * routes. Both are consistent, and so is their maximum. Landmark distances are only valid for searches
+ * that use nothing but the borders; links of a layer can make routes shorter than the landmarks know, so
+ * callers pass no landmarks then.
+ * <p>
+ * The open set is an indexed binary min-heap of node ids over primitive arrays, with decrease-key. Like
+ * {@link SearchScratch}, the buffers come from a {@link ScratchPool} and are reset with an epoch stamp,
+ * so a search allocates only the final route.
+ */
+final class DistanceSearch implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DistanceSearch.class);
+
+    private static final ScratchPool<DistanceSearch> POOL = new ScratchPool<>(DistanceSearch::new);
+    private static final int SETTLED = -1;
+    private static final EdgeLayer[] NO_LAYERS = new EdgeLayer[0];
+
+    private final ScratchPool<DistanceSearch> pool;
+
+    private int[] seenEpoch = new int[0];
+    private int epoch;
+    // Length of the best known route from the origin
+    private double[] distance = new double[0];
+    // distance + heuristic, the heap key
+    private double[] priority = new double[0];
+    private int[] predecessor = new int[0];
+    // Slot of the node in the heap, or SETTLED once it has been taken out
+    private int[] heapPosition = new int[0];
+    private int[] heap = new int[0];
+    private int heapSize;
+    private int settledNodes;
+    // Heuristic of the current search
+    private boolean useStraightLine;
+    private Landmarks landmarks;
+
+    private DistanceSearch(ScratchPool<DistanceSearch> pool) {
+
+        this.pool = pool;
+    }
+
+    /**
+     * @return the shortest route by distance with its length, or {@code null} when the destination is not
+     *         reachable
+     */
+    static RouteResponse search(BorderGraph borderGraph, int origin, int destination) {
+
+        return search(borderGraph, origin, destination, null);
+    }
+
+    /**
+     * @param avoided countries the route must not enter, or {@code null}
+     * @return the shortest route by distance with its length, or {@code null} when the destination is not
+     *         reachable
+     */
+    static RouteResponse search(BorderGraph borderGraph, int origin, int destination, BitSet avoided) {
+
+        try (var search = acquire()) {
+            return search.run(borderGraph, origin, destination, avoided, NO_LAYERS);
+        }
+    }
+
+    /**
+     * For callers that need more than the route; use in try-with-resources.
+     */
+    static DistanceSearch acquire() {
+
+        return POOL.acquire();
+    }
+
+    /**
+     * @param avoided countries the route must not enter, or {@code null}
+     * @param layers  layers of {@code borderGraph} the route may use besides the borders
+     * @return the shortest route by distance with its length, or {@code null} when the destination is not
+     *         reachable
+     */
+    RouteResponse run(
+        BorderGraph borderGraph,
+        int origin,
+        int destination,
+        BitSet avoided,
+        EdgeLayer[] layers) {
+
+        return run(borderGraph, origin, destination, avoided, layers, null);
+    }
+
+    /**
+     * @param avoided   countries the route must not enter, or {@code null}
+     * @param layers    layers of {@code borderGraph} the route may use besides the borders
+     * @param landmarks landmarks of {@code borderGraph} to guide the search with, or {@code null}; must
+     *                  be {@code null} when {@code layers} is not empty
+     * @return the shortest route by distance with its length, or {@code null} when the destination is not
+     *         reachable
+     */
+    RouteResponse run(
+        BorderGraph borderGraph,
+        int origin,
+        int destination,
+        BitSet avoided,
+        EdgeLayer[] layers,
+        Landmarks landmarks) {
+
+        reset(borderGraph.size());
+        if (avoided != null) {
+            settleAll(avoided);
+        }
+        useStraightLine = borderGraph.hasAllLocations();
+        this.landmarks = landmarks;
+        try {
+            return run(borderGraph, origin, destination, layers);
+        } finally {
+            this.landmarks = null;
+        }
+    }
+
+    /**
+     * Plain Dijkstra from {@code source} over one adjacency of {@code borderGraph}, the borders or their
+     * reverse, until every reachable country is settled.
+     *
+     * @param edgeLengths length of every edge, parallel to {@code neighbours}
+     * @return the length of the shortest route from {@code source} to every country, infinite when there
+     *         is none
+     */
+    static double[] distancesFrom(
+        BorderGraph borderGraph,
+        int source,
+        int[] offsets,
+        int[] neighbours,
+        double[] edgeLengths) {
+
+        try (var search = acquire()) {
+            return search.settleReachable(borderGraph, source, offsets, neighbours, edgeLengths);
+        }
+    }
+
+    /**
+     * @return the number of countries the last {@link #run} took from the queue
+     */
+    int settledNodes() {
+
+        return settledNodes;
+    }
+
+    @Override
+    public void close() {
+
+        pool.release(this);
+    }
+
+    private void reset(int graphSize) {
+
+        if (seenEpoch.length < graphSize) {
+            seenEpoch = new int[graphSize];
+            distance = new double[graphSize];
+            priority = new double[graphSize];
+            predecessor = new int[graphSize];
+            heapPosition = new int[graphSize];
+            heap = new int[graphSize];
+            epoch = 0;
+        }
+
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(seenEpoch, 0);
+            epoch = 1;
+        }
+        heapSize = 0;
+    }
+
+    private void settleAll(BitSet nodes) {
+
+        for (var node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            seenEpoch[node] = epoch;
+            heapPosition[node] = SETTLED;
+        }
+    }
+
+    private RouteResponse run(BorderGraph borderGraph, int origin, int destination, EdgeLayer[] layers) {
+
+        var settled = 0;
+
+        seenEpoch[origin] = epoch;
+        distance[origin] = 0;
+        priority[origin] = heuristic(borderGraph, origin, destination);
+        predecessor[origin] = origin;
+        push(origin);
+
+        while (heapSize > 0) {
+            var current = poll();
+            settled++;
+            if (current == destination) {
+                settledNodes = settled;
+                logSettledNodes(borderGraph, origin, destination, settled);
+                return new RouteResponse(
+                    routeTo(borderGraph, origin, destination), distance[destination]);
+            }
+
+            relaxAll(borderGraph, current, destination,
+                borderGraph.offsets(), borderGraph.neighbours(), borderGraph.edgeLengths());
+            for (var layer : layers) {
+                relaxAll(borderGraph, current, destination,
+                    layer.offsets(), layer.neighbours(), layer.edgeLengths());
+            }
+        }
+
+        settledNodes = settled;
+        logSettledNodes(borderGraph, origin, destination, settled);
+        return null;
+    }
+
+    private double[] settleReachable(
+        BorderGraph borderGraph,
+        int source,
+        int[] offsets,
+        int[] neighbours,
+        double[] edgeLengths) {
+
+        reset(borderGraph.size());
+        useStraightLine = false;
+        seenEpoch[source] = epoch;
+        distance[source] = 0;
+        priority[source] = 0;
+        push(source);
+        while (heapSize > 0) {
+            relaxAll(borderGraph, poll(), BorderGraph.NOT_FOUND, offsets, neighbours, edgeLengths);
+        }
+
+        var distances = new double[borderGraph.size()];
+        for (var node = 0; node < distances.length; node++) {
+            distances[node] = seenEpoch[node] == epoch ? distance[node] : Double.POSITIVE_INFINITY;
+        }
+        return distances;
+    }
+
+    private double heuristic(BorderGraph borderGraph, int node, int destination) {
+
+        var bound = useStraightLine ? borderGraph.lowerBoundKm(node, destination) : 0;
+        return landmarks != null ? Math.max(bound, landmarks.lowerBoundKm(node, destination)) : bound;
+    }
+
+    private void relaxAll(
+        BorderGraph borderGraph,
+        int current,
+        int destination,
+        int[] offsets,
+        int[] neighbours,
+        double[] edgeLengths) {
+
+        for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+            var neighbour = neighbours[edge];
+            var neighbourDistance = distance[current] + edgeLengths[edge];
+
+            if (seenEpoch[neighbour] != epoch) {
+                seenEpoch[neighbour] = epoch;
+                distance[neighbour] = neighbourDistance;
+                priority[neighbour] = neighbourDistance + heuristic(borderGraph, neighbour, destination);
+                predecessor[neighbour] = current;
+                push(neighbour);
+            } else if (heapPosition[neighbour] != SETTLED && neighbourDistance < distance[neighbour]) {
+                priority[neighbour] -= distance[neighbour] - neighbourDistance;
+                distance[neighbour] = neighbourDistance;
+                predecessor[neighbour] = current;
+                siftUp(heapPosition[neighbour]);
+            }
+        }
+    }
+
+    private void push(int node) {
+
+        heap[heapSize] = node;
+        heapPosition[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int poll() {
+
+        var top = heap[0];
+        heapPosition[top] = SETTLED;
+        var last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapPosition[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int slot) {
+
+        var node = heap[slot];
+        var key = priority[node];
+        while (slot > 0) {
+            var parentSlot = (slot - 1) >>> 1;
+            var parent = heap[parentSlot];
+            if (priority[parent] <= key) {
+                break;
+            }
+            heap[slot] = parent;
+            heapPosition[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = node;
+        heapPosition[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+
+        var node = heap[slot];
+        var key = priority[node];
+        var half = heapSize >>> 1;
+        while (slot < half) {
+            var childSlot = 2 * slot + 1;
+            var child = heap[childSlot];
+            var rightSlot = childSlot + 1;
+            if (rightSlot < heapSize && priority[heap[rightSlot]] < priority[child]) {
+                childSlot = rightSlot;
+                child = heap[childSlot];
+            }
+            if (key <= priority[child]) {
+                break;
+            }
+            heap[slot] = child;
+            heapPosition[child] = slot;
+            slot = childSlot;
+        }
+        heap[slot] = node;
+        heapPosition[node] = slot;
+    }
+
+    private List<String> routeTo(BorderGraph borderGraph, int origin, int destination) {
+
+        var length = 1;
+        for (var node = destination; node != origin; node = predecessor[node]) {
+            length++;
+        }
+
+        var route = new String[length];
+        var node = destination;
+        for (var position = length - 1; position >= 0; position--) {
+            route[position] = borderGraph.codeAt(node);
+            node = predecessor[node];
+        }
+
+        return List.of(route);
+    }
+
+    private static void logSettledNodes(
+        BorderGraph borderGraph,
+        int origin,
+        int destination,
+        int settled) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("A* {} -> {} settled {} nodes",
+                borderGraph.codeAt(origin), borderGraph.codeAt(destination), settled);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.repository.CountryDataReloadedEvent;
+import com.daniel.routingservice.repository.CountryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds every {@link PreprocessingStage} once the application has started and again after every reload,
+ * off the startup and reloader threads.
+ * <p>
+ * Runs are queued on a single thread, so they never overlap and always follow the order of the graphs; a
+ * run whose graph has already been replaced is skipped. The stages run one after another, each spreading
+ * its own work over a dedicated {@link ForkJoinPool} of {@code app.routing.preprocessing.parallelism}
+ * threads (all processors when 0), which keeps that work off the common pool that parallel batch requests
+ * use.
+ * <p>
+ * The time of every stage is recorded in the {@code routing.preprocessing} timer, tagged with the
+ * {@code stage}, and reported by {@link #health()}: {@code OUT_OF_SERVICE} until the first run has
+ * finished, which keeps the instance out of readiness while requests would still fall back to slow
+ * searches, and {@code DOWN} when a stage failed. Errors count as failures too: a stage that runs out of
+ * memory for its tables reports {@code DOWN} with the cause and leaves the other stages to be built.
+ */
+@Component
+public class GraphPreprocessor {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphPreprocessor.class);
+
+    private final CountryRepository countryRepository;
+    private final List<PreprocessingStage> stages;
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private final ForkJoinPool pool;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "graph-preprocessing");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Run lastRun;
+
+    public GraphPreprocessor(
+        CountryRepository countryRepository,
+        ObjectProvider<PreprocessingStage> stages,
+        MeterRegistry meterRegistry,
+        @Value("${app.routing.preprocessing.parallelism:0}") int parallelism) {
+
+        if (parallelism < 0) {
+            throw new IllegalArgumentException(
+                "app.routing.preprocessing.parallelism must not be negative, got " + parallelism);
+        }
+        this.countryRepository = countryRepository;
+        this.stages = stages.orderedStream().toList();
+        this.pool = new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        for (var stage : this.stages) {
+            timers.put(stage.name(), Timer.builder("routing.preprocessing")
+                .description("Time to build a derived index of the border graph")
+                .tag("stage", stage.name())
+                .register(meterRegistry));
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    void onApplicationStarted() {
+
+        submit(countryRepository.getBorderGraph());
+    }
+
+    @EventListener
+    void onCountryDataReloaded(CountryDataReloadedEvent event) {
+
+        submit(event.borderGraph());
+    }
+
+    /**
+     * @return completes once the stages have been built for {@code borderGraph}, or skipped
+     */
+    CompletableFuture<Void> submit(BorderGraph borderGraph) {
+
+        return CompletableFuture.runAsync(() -> run(borderGraph), executor)
+            .whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    var cause = failure.getCause() != null ? failure.getCause() : failure;
+                    log.error("Preprocessing failed", cause);
+                    lastRun = new Run(Map.of(), Map.of("preprocessing", describe(cause)));
+                }
+            });
+    }
+
+    private void run(BorderGraph borderGraph) {
+
+        if (borderGraph != countryRepository.getBorderGraph()) {
+            log.debug("Skipping preprocessing of a graph that has already been replaced");
+            return;
+        }
+
+        var startedAt = System.nanoTime();
+        var stageMillis = new LinkedHashMap<String, Long>();
+        var failures = new LinkedHashMap<String, String>();
+        for (var stage : stages) {
+            var stageStartedAt = System.nanoTime();
+            try {
+                stage.build(borderGraph, pool);
+            } catch (Throwable exception) {
+                log.error("Preprocessing stage {} failed", stage.name(), exception);
+                failures.put(stage.name(), describe(exception));
+                continue;
+            }
+            var elapsed = System.nanoTime() - stageStartedAt;
+            timers.get(stage.name()).record(elapsed, TimeUnit.NANOSECONDS);
+            stageMillis.put(stage.name(), elapsed / 1_000_000);
+        }
+
+        lastRun = new Run(
+            Collections.unmodifiableMap(stageMillis), Collections.unmodifiableMap(failures));
+        log.info("Preprocessed {} countries in {} ms on {} threads {}",
+            borderGraph.size(), (System.nanoTime() - startedAt) / 1_000_000, pool.getParallelism(),
+            stageMillis);
+    }
+
+    /**
+     * @return the message of an exception, or the type and message of an error, whose message rarely says
+     *         enough
+     */
+    private static String describe(Throwable failure) {
+
+        if (failure instanceof Error || failure.getMessage() == null) {
+            return failure.toString();
+        }
+        return failure.getMessage();
+    }
+
+    /**
+     * State of the last run for the {@code preprocessing} health indicator, with the milliseconds per
+     * stage.
+     */
+    public Health health() {
+
+        var run = lastRun;
+        if (run == null) {
+            return Health.outOfService()
+                .withDetail("stages", stages.stream().map(PreprocessingStage::name).toList())
+                .build();
+        }
+
+        var health = run.failures().isEmpty()
+            ? Health.up()
+            : Health.down().withDetail("failures", run.failures());
+        return health
+            .withDetail("stageMillis", run.stageMillis())
+            .withDetail("parallelism", pool.getParallelism())
+            .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private record Run(Map<String, Long> stageMillis, Map<String, String> failures) {
+    }
+}
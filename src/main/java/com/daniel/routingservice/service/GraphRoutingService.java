@@ -0,0 +1,314 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.model.EdgeLayer;
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.LayerNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryRepository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Common request handling of the engines that route over the {@link BorderGraph}.
+ * <p>
+ * Validates both countries, answers same-country requests and rejects pairs in different connected
+ * components up front, so that {@link #search} only runs for pairs that may have a route.
+ * <p>
+ * Engines differ only in how they find routes by {@link RouteMetric#HOPS}; routes by
+ * {@link RouteMetric#DISTANCE} are found with the shared {@link DistanceSearch} by every engine, guided
+ * by the landmarks of the {@link DistanceOracle} once they are built and as long as no layers are
+ * requested. On graphs too large for the oracle's exact matrix the same landmarks also guide a
+ * {@link HopSearch} in place of the engine's search, unless the engine has an index of its own for the
+ * graph.
+ * <p>
+ * {@link RouteConstraints} are applied per request without touching the graph: avoided countries become a
+ * {@link BitSet} mask that the searches treat as already visited, and a route with waypoints is searched
+ * as a chain of segments. Requested {@link EdgeLayer}s are walked next to the borders by the same
+ * searches. Engine searches cannot take a mask or layers, so such hop-count segments use a plain BFS
+ * instead.
+ * <p>
+ * Every request that reaches an engine is counted by outcome in {@link RoutingMetrics}, and a sample of
+ * them is timed.
+ */
+public abstract class GraphRoutingService implements RoutingService {
+
+    private static final EdgeLayer[] NO_LAYERS = new EdgeLayer[0];
+
+    protected final CountryRepository countryRepository;
+    private final RoutingMetrics routingMetrics;
+    private final DistanceOracle distanceOracle;
+
+    protected GraphRoutingService(
+        CountryRepository countryRepository,
+        RoutingMetrics routingMetrics,
+        DistanceOracle distanceOracle) {
+
+        this.countryRepository = countryRepository;
+        this.routingMetrics = routingMetrics;
+        this.distanceOracle = distanceOracle;
+    }
+
+    @Override
+    public RouteResponse findRoute(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints) {
+
+        var startedAt = routingMetrics.startTiming();
+        try {
+            var route = route(origin, destination, metric, constraints);
+            routingMetrics.recordFound(metric, route, startedAt);
+            return route;
+        } catch (RouteNotFoundException routeNotFoundException) {
+            routingMetrics.recordRouteNotFound(metric, startedAt);
+            throw routeNotFoundException;
+        } catch (CountryNotFoundException countryNotFoundException) {
+            routingMetrics.recordCountryNotFound(metric, startedAt);
+            throw countryNotFoundException;
+        } catch (LayerNotFoundException layerNotFoundException) {
+            routingMetrics.recordLayerNotFound(metric, startedAt);
+            throw layerNotFoundException;
+        }
+    }
+
+    /**
+     * Reports the number of countries a hop-count search expanded.
+     */
+    protected void recordExpandedNodes(int expanded) {
+
+        routingMetrics.recordExpandedNodes(RouteMetric.HOPS, expanded);
+    }
+
+    private RouteResponse route(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints) {
+
+        var originCountry = getCountry(origin);
+        var destinationCountry = getCountry(destination);
+        if (constraints.isEmpty()) {
+            return findShortestPath(originCountry.cca3(), destinationCountry.cca3(), metric);
+        }
+
+        constraints.avoid().forEach(this::getCountry);
+        constraints.via().forEach(this::getCountry);
+        return findConstrainedPath(originCountry.cca3(), destinationCountry.cca3(), metric, constraints);
+    }
+
+    private Country getCountry(String code) {
+
+        return countryRepository.findByCca3(code)
+            .orElseThrow(() -> new CountryNotFoundException(code));
+    }
+
+    private RouteResponse findShortestPath(String origin, String destination, RouteMetric metric) {
+
+        if (origin.equals(destination)) {
+            return metric == RouteMetric.DISTANCE
+                ? new RouteResponse(List.of(origin), 0.0)
+                : new RouteResponse(List.of(origin));
+        }
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var originIndex = borderGraph.indexOf(origin);
+        var destinationIndex = borderGraph.indexOf(destination);
+        if (originIndex == BorderGraph.NOT_FOUND
+            || destinationIndex == BorderGraph.NOT_FOUND
+            || !borderGraph.sameComponent(originIndex, destinationIndex)) {
+            throw new RouteNotFoundException(origin, destination);
+        }
+
+        var route = switch (metric) {
+            case HOPS -> {
+                var hops = searchByHops(borderGraph, originIndex, destinationIndex);
+                yield hops != null ? new RouteResponse(hops) : null;
+            }
+            case DISTANCE -> searchByDistance(
+                borderGraph, originIndex, destinationIndex, null, NO_LAYERS);
+        };
+        if (route == null) {
+            throw new RouteNotFoundException(origin, destination);
+        }
+        return route;
+    }
+
+    private RouteResponse findConstrainedPath(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints) {
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var layers = new EdgeLayer[constraints.layers().size()];
+        for (var position = 0; position < layers.length; position++) {
+            var layer = constraints.layers().get(position);
+            var layerIndex = borderGraph.layerIndexOf(layer);
+            if (layerIndex == BorderGraph.NOT_FOUND) {
+                throw new LayerNotFoundException(layer);
+            }
+            layers[position] = borderGraph.layer(layerIndex);
+        }
+
+        var avoided = new BitSet(borderGraph.size());
+        for (var code : constraints.avoid()) {
+            var index = borderGraph.indexOf(code);
+            if (index != BorderGraph.NOT_FOUND) {
+                avoided.set(index);
+            }
+        }
+
+        var stops = new int[constraints.via().size() + 2];
+        stops[0] = borderGraph.indexOf(origin);
+        for (var position = 0; position < constraints.via().size(); position++) {
+            stops[position + 1] = borderGraph.indexOf(constraints.via().get(position));
+        }
+        stops[stops.length - 1] = borderGraph.indexOf(destination);
+        for (var stop : stops) {
+            if (stop == BorderGraph.NOT_FOUND || avoided.get(stop)) {
+                throw new RouteNotFoundException(origin, destination);
+            }
+        }
+
+        var route = new ArrayList<String>();
+        route.add(origin);
+        var distanceKm = 0.0;
+        for (var segment = 1; segment < stops.length; segment++) {
+            var from = stops[segment - 1];
+            var to = stops[segment];
+            if (from == to) {
+                continue;
+            }
+            if (!borderGraph.sameComponent(from, to)
+                && (layers.length == 0 || !borderGraph.sameComponentWithLayers(from, to))) {
+                throw new RouteNotFoundException(origin, destination);
+            }
+
+            var segmentRoute = switch (metric) {
+                case HOPS -> {
+                    var hops = avoided.isEmpty() && layers.length == 0
+                        ? searchByHops(borderGraph, from, to)
+                        : searchMasked(borderGraph, from, to, avoided, layers);
+                    yield hops != null ? new RouteResponse(hops) : null;
+                }
+                case DISTANCE -> searchByDistance(borderGraph, from, to, avoided, layers);
+            };
+            if (segmentRoute == null) {
+                throw new RouteNotFoundException(origin, destination);
+            }
+
+            route.addAll(segmentRoute.route().subList(1, segmentRoute.route().size()));
+            if (segmentRoute.distanceKm() != null) {
+                distanceKm += segmentRoute.distanceKm();
+            }
+        }
+
+        return metric == RouteMetric.DISTANCE
+            ? new RouteResponse(route, distanceKm)
+            : new RouteResponse(route);
+    }
+
+    private List<String> searchByHops(BorderGraph borderGraph, int origin, int destination) {
+
+        var landmarks = hasIndexFor(borderGraph) ? null : distanceOracle.hopLandmarksFor(borderGraph);
+        if (landmarks == null) {
+            return search(borderGraph, origin, destination);
+        }
+
+        try (var search = HopSearch.acquire()) {
+            var route = search.run(borderGraph, origin, destination, landmarks);
+            recordExpandedNodes(search.settledNodes());
+            return route;
+        }
+    }
+
+    private RouteResponse searchByDistance(
+        BorderGraph borderGraph,
+        int origin,
+        int destination,
+        BitSet avoided,
+        EdgeLayer[] layers) {
+
+        // Landmark distances follow the borders only; layers could make routes shorter than they allow
+        var landmarks = layers.length == 0 ? distanceOracle.landmarksFor(borderGraph) : null;
+        try (var search = DistanceSearch.acquire()) {
+            var route = search.run(borderGraph, origin, destination, avoided, layers, landmarks);
+            routingMetrics.recordExpandedNodes(RouteMetric.DISTANCE, search.settledNodes());
+            return route;
+        }
+    }
+
+    /**
+     * BFS over the borders and {@code layers} that never enters the {@code avoided} countries, which are
+     * stamped as visited before the search starts.
+     */
+    private List<String> searchMasked(
+        BorderGraph borderGraph,
+        int origin,
+        int destination,
+        BitSet avoided,
+        EdgeLayer[] layers) {
+
+        try (var scratch = SearchScratch.acquire(borderGraph.size())) {
+            var queue = scratch.queue;
+            var head = 0;
+            var tail = 0;
+
+            for (var node = avoided.nextSetBit(0); node >= 0; node = avoided.nextSetBit(node + 1)) {
+                scratch.visit(node, node);
+            }
+            scratch.visit(origin, origin);
+            queue[tail++] = origin;
+
+            while (head < tail) {
+                var current = queue[head++];
+
+                // Layer -1 stands for the borders
+                for (var layer = -1; layer < layers.length; layer++) {
+                    var offsets = layer < 0 ? borderGraph.offsets() : layers[layer].offsets();
+                    var neighbours = layer < 0 ? borderGraph.neighbours() : layers[layer].neighbours();
+
+                    for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                        var neighbour = neighbours[edge];
+                        if (!scratch.visit(neighbour, current)) {
+                            continue;
+                        }
+
+                        if (neighbour == destination) {
+                            recordExpandedNodes(head);
+                            return scratch.routeTo(borderGraph, origin, destination);
+                        }
+
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+            recordExpandedNodes(head);
+            return null;
+        }
+    }
+
+    /**
+     * @return whether {@link #search} answers from an index built for {@code borderGraph}, which beats a
+     *         guided search
+     */
+    protected boolean hasIndexFor(BorderGraph borderGraph) {
+
+        return false;
+    }
+
+    /**
+     * Finds a shortest route between two different countries of the same component.
+     *
+     * @return the route including both ends, or {@code null} when the destination is not reachable
+     */
+    protected abstract List<String> search(BorderGraph borderGraph, int origin, int destination);
+}
@@ -0,0 +1,236 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* search for the route with the fewest border crossings, guided by the hop bounds of
+ * {@link Landmarks}.
+ * <p>
+ * Every border costs one hop. {@link Landmarks#hopsLowerBound} changes by at most one along a border
+ * towards any country that can reach the destination, so it is consistent where it matters: the first
+ * time such a country is taken from the queue its hop count is final. Countries that cannot reach the
+ * destination never lie on the route, whatever order they are taken in. Ties on the estimate go to the
+ * country with more hops, the one closer to the destination, so a tight bound leads the search straight
+ * along the route.
+ * <p>
+ * The open set is an indexed binary min-heap over primitive arrays with decrease-key, as in
+ * {@link DistanceSearch}. The buffers come from a {@link ScratchPool} and are reset with an epoch stamp,
+ * so a search allocates only the final route.
+ */
+final class HopSearch implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HopSearch.class);
+
+    private static final ScratchPool<HopSearch> POOL = new ScratchPool<>(HopSearch::new);
+    private static final int SETTLED = -1;
+
+    private final ScratchPool<HopSearch> pool;
+
+    private int[] seenEpoch = new int[0];
+    private int epoch;
+    // Hops of the best known route from the origin
+    private int[] hops = new int[0];
+    // hops + lower bound to the destination, the heap key
+    private int[] estimate = new int[0];
+    private int[] predecessor = new int[0];
+    // Slot of the node in the heap, or SETTLED once it has been taken out
+    private int[] heapPosition = new int[0];
+    private int[] heap = new int[0];
+    private int heapSize;
+    private int settledNodes;
+
+    private HopSearch(ScratchPool<HopSearch> pool) {
+
+        this.pool = pool;
+    }
+
+    /**
+     * Use in try-with-resources.
+     */
+    static HopSearch acquire() {
+
+        return POOL.acquire();
+    }
+
+    /**
+     * @param landmarks landmarks of {@code borderGraph}
+     * @return a route with the fewest hops including both ends, or {@code null} when the destination is
+     *         not reachable
+     */
+    List<String> run(BorderGraph borderGraph, int origin, int destination, Landmarks landmarks) {
+
+        reset(borderGraph.size());
+        var offsets = borderGraph.offsets();
+        var neighbours = borderGraph.neighbours();
+        var settled = 0;
+
+        seenEpoch[origin] = epoch;
+        hops[origin] = 0;
+        estimate[origin] = landmarks.hopsLowerBound(origin, destination);
+        predecessor[origin] = origin;
+        push(origin);
+
+        while (heapSize > 0) {
+            var current = poll();
+            settled++;
+            if (current == destination) {
+                settledNodes = settled;
+                logSettledNodes(borderGraph, origin, destination, settled);
+                return routeTo(borderGraph, origin, destination);
+            }
+
+            var neighbourHops = hops[current] + 1;
+            for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                var neighbour = neighbours[edge];
+                if (seenEpoch[neighbour] != epoch) {
+                    seenEpoch[neighbour] = epoch;
+                    hops[neighbour] = neighbourHops;
+                    estimate[neighbour] =
+                        neighbourHops + landmarks.hopsLowerBound(neighbour, destination);
+                    predecessor[neighbour] = current;
+                    push(neighbour);
+                } else if (heapPosition[neighbour] != SETTLED && neighbourHops < hops[neighbour]) {
+                    estimate[neighbour] -= hops[neighbour] - neighbourHops;
+                    hops[neighbour] = neighbourHops;
+                    predecessor[neighbour] = current;
+                    siftUp(heapPosition[neighbour]);
+                }
+            }
+        }
+
+        settledNodes = settled;
+        logSettledNodes(borderGraph, origin, destination, settled);
+        return null;
+    }
+
+    /**
+     * @return the number of countries the last {@link #run} took from the queue
+     */
+    int settledNodes() {
+
+        return settledNodes;
+    }
+
+    @Override
+    public void close() {
+
+        pool.release(this);
+    }
+
+    private void reset(int graphSize) {
+
+        if (seenEpoch.length < graphSize) {
+            seenEpoch = new int[graphSize];
+            hops = new int[graphSize];
+            estimate = new int[graphSize];
+            predecessor = new int[graphSize];
+            heapPosition = new int[graphSize];
+            heap = new int[graphSize];
+            epoch = 0;
+        }
+
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(seenEpoch, 0);
+            epoch = 1;
+        }
+        heapSize = 0;
+    }
+
+    /**
+     * Heap order: lower estimate first, more hops first on ties.
+     */
+    private boolean before(int node, int other) {
+
+        return estimate[node] < estimate[other]
+            || estimate[node] == estimate[other] && hops[node] > hops[other];
+    }
+
+    private void push(int node) {
+
+        heap[heapSize] = node;
+        heapPosition[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int poll() {
+
+        var top = heap[0];
+        heapPosition[top] = SETTLED;
+        var last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapPosition[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int slot) {
+
+        var node = heap[slot];
+        while (slot > 0) {
+            var parentSlot = (slot - 1) >>> 1;
+            var parent = heap[parentSlot];
+            if (!before(node, parent)) {
+                break;
+            }
+            heap[slot] = parent;
+            heapPosition[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = node;
+        heapPosition[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+
+        var node = heap[slot];
+        var half = heapSize >>> 1;
+        while (slot < half) {
+            var childSlot = 2 * slot + 1;
+            var child = heap[childSlot];
+            var rightSlot = childSlot + 1;
+            if (rightSlot < heapSize && before(heap[rightSlot], child)) {
+                childSlot = rightSlot;
+                child = heap[childSlot];
+            }
+            if (!before(child, node)) {
+                break;
+            }
+            heap[slot] = child;
+            heapPosition[child] = slot;
+            slot = childSlot;
+        }
+        heap[slot] = node;
+        heapPosition[node] = slot;
+    }
+
+    private List<String> routeTo(BorderGraph borderGraph, int origin, int destination) {
+
+        var route = new String[hops[destination] + 1];
+        var node = destination;
+        for (var position = route.length - 1; position >= 0; position--) {
+            route[position] = borderGraph.codeAt(node);
+            node = predecessor[node];
+        }
+
+        return List.of(route);
+    }
+
+    private static void logSettledNodes(
+        BorderGraph borderGraph,
+        int origin,
+        int destination,
+        int settled) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Hop A* {} -> {} settled {} nodes",
+                borderGraph.codeAt(origin), borderGraph.codeAt(destination), settled);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Shortest hop counts and route lengths between a few landmark countries and every country of a
+ * {@link BorderGraph}, the ALT technique (A*, landmarks, triangle inequality). For a landmark {@code L}
+ * and countries {@code v} and {@code t}, {@code d(v, t) >= d(L, t) - d(L, v)},
+ * {@code d(v, t) >= d(v, L) - d(t, L)} and {@code d(v, t) <= d(v, L) + d(L, t)}, so a handful of table
+ * lookups bound the distance between any two countries from both sides, for hops and kilometres alike.
+ * Borders are directed, so distances are kept both from and to every landmark.
+ * <p>
+ * Landmarks are picked by farthest-point selection: the first in every component of three or more
+ * countries, largest first, is the country farthest from an arbitrary one; each further landmark is the
+ * country farthest from all landmarks chosen so far. Countries at the edge of the graph give the tightest
+ * bounds for routes across it.
+ * <p>
+ * Distances are kept node-major, the values of all landmarks for one country next to each other, so a
+ * bound reads a few short runs of memory. The distances cover borders only.
+ */
+final class Landmarks {
+
+    static final int UNREACHED = -1;
+
+    // Origins and destinations per origin of the pairs that hopsBoundTightness measures
+    private static final int TIGHTNESS_ORIGINS = 16;
+    private static final int TIGHTNESS_DESTINATIONS = 64;
+
+    private final int[] nodes;
+    // hopsFrom[node * count + landmark] from the landmark to the node, UNREACHED when there is no route
+    private final int[] hopsFrom;
+    private final int[] hopsTo;
+    // kilometresFrom[node * count + landmark] from the landmark to the node, infinite when there is no
+    // route
+    private final double[] kilometresFrom;
+    private final double[] kilometresTo;
+
+    private Landmarks(
+        int[] nodes,
+        int[] hopsFrom,
+        int[] hopsTo,
+        double[] kilometresFrom,
+        double[] kilometresTo) {
+
+        this.nodes = nodes;
+        this.hopsFrom = hopsFrom;
+        this.hopsTo = hopsTo;
+        this.kilometresFrom = kilometresFrom;
+        this.kilometresTo = kilometresTo;
+    }
+
+    /**
+     * Picks up to {@code maxCount} landmarks and measures the routes from and to them in parallel on
+     * {@code pool}. Fewer are picked when every further country would be next to a landmark already.
+     */
+    static Landmarks select(BorderGraph borderGraph, int maxCount, ForkJoinPool pool) {
+
+        var size = borderGraph.size();
+        var componentSizes = new int[borderGraph.componentCount()];
+        for (var node = 0; node < size; node++) {
+            componentSizes[borderGraph.componentOf(node)]++;
+        }
+        var covered = new boolean[componentSizes.length];
+
+        // Hops from the nearest landmark, UNREACHED while no landmark reaches the country
+        var nearest = new int[size];
+        Arrays.fill(nearest, UNREACHED);
+        var chosen = new ArrayList<Integer>();
+        var queue = new int[size];
+
+        while (chosen.size() < maxCount) {
+            var landmark = firstOfLargestUncovered(borderGraph, componentSizes, covered, queue);
+            if (landmark == UNREACHED) {
+                landmark = farthest(nearest, 1);
+            }
+            if (landmark == UNREACHED) {
+                break;
+            }
+
+            covered[borderGraph.componentOf(landmark)] = true;
+            var fromLandmark = hopsFrom(borderGraph, landmark, queue);
+            for (var node = 0; node < size; node++) {
+                var hops = fromLandmark[node];
+                if (hops != UNREACHED && (nearest[node] == UNREACHED || hops < nearest[node])) {
+                    nearest[node] = hops;
+                }
+            }
+            chosen.add(landmark);
+        }
+
+        var count = chosen.size();
+        var nodes = chosen.stream().mapToInt(Integer::intValue).toArray();
+        var reverseEdgeLengths = reverseEdgeLengths(borderGraph);
+        var hopsFrom = new int[count][];
+        var hopsTo = new int[count][];
+        var kilometresFrom = new double[count][];
+        var kilometresTo = new double[count][];
+        PerSourceTask.forEach(pool, count, () -> {
+            var leafQueue = new int[size];
+            return landmark -> {
+                var node = nodes[landmark];
+                var offsets = borderGraph.offsets();
+                var neighbours = borderGraph.neighbours();
+                var reverseOffsets = borderGraph.reverseOffsets();
+                var reverseNeighbours = borderGraph.reverseNeighbours();
+                hopsFrom[landmark] = hops(borderGraph, node, offsets, neighbours, leafQueue);
+                hopsTo[landmark] = hops(borderGraph, node, reverseOffsets, reverseNeighbours, leafQueue);
+                kilometresFrom[landmark] = DistanceSearch.distancesFrom(
+                    borderGraph, node, offsets, neighbours, borderGraph.edgeLengths());
+                kilometresTo[landmark] = DistanceSearch.distancesFrom(
+                    borderGraph, node, reverseOffsets, reverseNeighbours, reverseEdgeLengths);
+            };
+        });
+
+        return new Landmarks(nodes,
+            nodeMajor(hopsFrom, size), nodeMajor(hopsTo, size),
+            nodeMajor(kilometresFrom, size), nodeMajor(kilometresTo, size));
+    }
+
+    /**
+     * BFS hop counts over the borders from {@code source} to every country, {@link #UNREACHED} where
+     * there is no route.
+     *
+     * @param queue scratch of at least {@code borderGraph.size()}
+     */
+    static int[] hopsFrom(BorderGraph borderGraph, int source, int[] queue) {
+
+        return hops(borderGraph, source, borderGraph.offsets(), borderGraph.neighbours(), queue);
+    }
+
+    private static int[] hops(
+        BorderGraph borderGraph,
+        int source,
+        int[] offsets,
+        int[] neighbours,
+        int[] queue) {
+
+        var hops = new int[borderGraph.size()];
+        Arrays.fill(hops, UNREACHED);
+        hops[source] = 0;
+
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            var current = queue[head++];
+            for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                var neighbour = neighbours[edge];
+                if (hops[neighbour] == UNREACHED) {
+                    hops[neighbour] = hops[current] + 1;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return hops;
+    }
+
+    /**
+     * Lengths parallel to {@link BorderGraph#reverseNeighbours()}, measured from the source of every
+     * border as {@link BorderGraph#edgeLengths()} are, so both directions agree to the last bit.
+     */
+    private static double[] reverseEdgeLengths(BorderGraph borderGraph) {
+
+        var reverseOffsets = borderGraph.reverseOffsets();
+        var reverseNeighbours = borderGraph.reverseNeighbours();
+        var lengths = new double[reverseNeighbours.length];
+        for (var node = 0; node < borderGraph.size(); node++) {
+            for (var edge = reverseOffsets[node]; edge < reverseOffsets[node + 1]; edge++) {
+                var length = borderGraph.distanceKm(reverseNeighbours[edge], node);
+                lengths[edge] = Double.isNaN(length) ? 0 : length;
+            }
+        }
+        return lengths;
+    }
+
+    private static int[] nodeMajor(int[][] byLandmark, int size) {
+
+        var count = byLandmark.length;
+        var values = new int[size * count];
+        for (var landmark = 0; landmark < count; landmark++) {
+            for (var node = 0; node < size; node++) {
+                values[node * count + landmark] = byLandmark[landmark][node];
+            }
+        }
+        return values;
+    }
+
+    private static double[] nodeMajor(double[][] byLandmark, int size) {
+
+        var count = byLandmark.length;
+        var values = new double[size * count];
+        for (var landmark = 0; landmark < count; landmark++) {
+            for (var node = 0; node < size; node++) {
+                values[node * count + landmark] = byLandmark[landmark][node];
+            }
+        }
+        return values;
+    }
+
+    private static int firstOfLargestUncovered(
+        BorderGraph borderGraph,
+        int[] componentSizes,
+        boolean[] covered,
+        int[] queue) {
+
+        var largest = UNREACHED;
+        for (var component = 0; component < componentSizes.length; component++) {
+            if (!covered[component] && componentSizes[component] >= 3
+                && (largest == UNREACHED || componentSizes[component] > componentSizes[largest])) {
+                largest = component;
+            }
+        }
+        if (largest == UNREACHED) {
+            return UNREACHED;
+        }
+
+        var start = 0;
+        while (borderGraph.componentOf(start) != largest) {
+            start++;
+        }
+        var farthest = farthest(hopsFrom(borderGraph, start, queue), 0);
+        return farthest != UNREACHED ? farthest : start;
+    }
+
+    /**
+     * @return the country with the most hops above {@code atLeast}, the first one on ties, or
+     *         {@link #UNREACHED}
+     */
+    private static int farthest(int[] hops, int atLeast) {
+
+        var farthest = UNREACHED;
+        var most = atLeast;
+        for (var node = 0; node < hops.length; node++) {
+            if (hops[node] > most) {
+                most = hops[node];
+                farthest = node;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * How close {@link #hopsLowerBound} comes to the true hop count on average, from 0 to 1, over the
+     * pairs between a few origins spread evenly over the graph and evenly spread countries they reach.
+     * One BFS per origin, in parallel on {@code pool}.
+     */
+    double hopsBoundTightness(BorderGraph borderGraph, ForkJoinPool pool) {
+
+        var size = borderGraph.size();
+        var origins = Math.min(TIGHTNESS_ORIGINS, size);
+        var destinationStep = Math.max(1, size / TIGHTNESS_DESTINATIONS);
+        var ratioSums = new double[origins];
+        var pairs = new int[origins];
+        PerSourceTask.forEach(pool, origins, () -> {
+            var queue = new int[size];
+            return sample -> {
+                var origin = (int) ((long) sample * size / origins);
+                var hops = hopsFrom(borderGraph, origin, queue);
+                var first = sample % destinationStep;
+                for (var destination = first; destination < size; destination += destinationStep) {
+                    if (hops[destination] > 0) {
+                        var bound = hopsLowerBound(origin, destination);
+                        ratioSums[sample] += (double) bound / hops[destination];
+                        pairs[sample]++;
+                    }
+                }
+            };
+        });
+
+        var pairCount = Arrays.stream(pairs).sum();
+        return pairCount > 0 ? Arrays.stream(ratioSums).sum() / pairCount : 0;
+    }
+
+    int count() {
+
+        return nodes.length;
+    }
+
+    List<String> codes(BorderGraph borderGraph) {
+
+        return Arrays.stream(nodes).mapToObj(borderGraph::codeAt).toList();
+    }
+
+    /**
+     * @return a lower bound of the hops from {@code origin} to {@code destination}; 0 when no landmark
+     *         tells
+     */
+    int hopsLowerBound(int origin, int destination) {
+
+        var count = nodes.length;
+        var originRow = origin * count;
+        var destinationRow = destination * count;
+        var bound = 0;
+        for (var landmark = 0; landmark < count; landmark++) {
+            var fromToOrigin = hopsFrom[originRow + landmark];
+            var fromToDestination = hopsFrom[destinationRow + landmark];
+            if (fromToOrigin != UNREACHED && fromToDestination != UNREACHED) {
+                bound = Math.max(bound, fromToDestination - fromToOrigin);
+            }
+            var originTo = hopsTo[originRow + landmark];
+            var destinationTo = hopsTo[destinationRow + landmark];
+            if (originTo != UNREACHED && destinationTo != UNREACHED) {
+                bound = Math.max(bound, originTo - destinationTo);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * @return the hops of a route through one of the landmarks, {@link Integer#MAX_VALUE} when there is
+     *         none
+     */
+    int hopsUpperBound(int origin, int destination) {
+
+        var count = nodes.length;
+        var bound = Integer.MAX_VALUE;
+        for (var landmark = 0; landmark < count; landmark++) {
+            var originTo = hopsTo[origin * count + landmark];
+            var fromToDestination = hopsFrom[destination * count + landmark];
+            if (originTo != UNREACHED && fromToDestination != UNREACHED) {
+                bound = Math.min(bound, originTo + fromToDestination);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * A consistent A* heuristic towards {@code destination} for every country that can reach it.
+     *
+     * @return a lower bound in kilometres of the route from {@code origin} to {@code destination}; 0 when
+     *         no landmark tells
+     */
+    double lowerBoundKm(int origin, int destination) {
+
+        var count = nodes.length;
+        var originRow = origin * count;
+        var destinationRow = destination * count;
+        var bound = 0.0;
+        for (var landmark = 0; landmark < count; landmark++) {
+            // A landmark without a route to or from one of the two gives an infinite or NaN difference,
+            // which says nothing about the route between them
+            var forward =
+                kilometresFrom[destinationRow + landmark] - kilometresFrom[originRow + landmark];
+            if (forward > bound && forward != Double.POSITIVE_INFINITY) {
+                bound = forward;
+            }
+            var backward = kilometresTo[originRow + landmark] - kilometresTo[destinationRow + landmark];
+            if (backward > bound && backward != Double.POSITIVE_INFINITY) {
+                bound = backward;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * @return the kilometres of a route through one of the landmarks, infinite when there is none
+     */
+    double upperBoundKm(int origin, int destination) {
+
+        var count = nodes.length;
+        var originRow = origin * count;
+        var destinationRow = destination * count;
+        var bound = Double.POSITIVE_INFINITY;
+        for (var landmark = 0; landmark < count; landmark++) {
+            var through = kilometresTo[originRow + landmark] + kilometresFrom[destinationRow + landmark];
+            bound = Math.min(bound, through);
+        }
+        return bound;
+    }
+}
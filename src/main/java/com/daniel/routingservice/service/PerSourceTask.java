@@ -0,0 +1,52 @@
+package com.daniel.routingservice.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs one independent search per source of {@code [0, sources)} on a fork-join pool, as the
+ * preprocessing stages do. The range is halved until a task is small enough that its searches outweigh
+ * the cost of forking it.
+ */
+final class PerSourceTask extends RecursiveAction {
+
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final Supplier<IntConsumer> leafSearch;
+    private final int from;
+    private final int to;
+
+    private PerSourceTask(Supplier<IntConsumer> leafSearch, int from, int to) {
+
+        this.leafSearch = leafSearch;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @param leafSearch called once per leaf task for the search to run on each of its sources, so that a
+     *                   leaf can allocate its scratch buffers once and reuse them for all its sources
+     */
+    static void forEach(ForkJoinPool pool, int sources, Supplier<IntConsumer> leafSearch) {
+
+        pool.invoke(new PerSourceTask(leafSearch, 0, sources));
+    }
+
+    @Override
+    protected void compute() {
+
+        if (to - from > SOURCES_PER_TASK) {
+            var middle = (from + to) >>> 1;
+            invokeAll(
+                new PerSourceTask(leafSearch, from, middle), new PerSourceTask(leafSearch, middle, to));
+            return;
+        }
+
+        var search = leafSearch.get();
+        for (var source = from; source < to; source++) {
+            search.accept(source);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Answers routes from an all-pairs predecessor table, built as the {@code route-table}
+ * {@link PreprocessingStage}.
+ * <p>
+ * One BFS is run from every country and only the predecessor of each reached node is kept, so a lookup is
+ * a walk back from the destination to the origin instead of a graph search. The searches are independent
+ * and run in parallel on the preprocessing pool.
+ * <p>
+ * When the country data is reloaded the table is rebuilt for the new graph and swapped in; requests that
+ * arrive before the first table is built, or with a graph the current table was not built for, fall back
+ * to a plain search.
+ */
+@Service
+@RoutingEngine
+@ConditionalOnProperty(name = "app.routing.engine", havingValue = "precomputed")
+public class PrecomputedRoutingService extends GraphRoutingService implements PreprocessingStage {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecomputedRoutingService.class);
+
+    private static final short UNREACHABLE = -1;
+
+    private volatile RouteTable routeTable;
+
+    public PrecomputedRoutingService(
+        CountryRepository countryRepository,
+        RoutingMetrics routingMetrics,
+        DistanceOracle distanceOracle) {
+
+        super(countryRepository, routingMetrics, distanceOracle);
+    }
+
+    @Override
+    public String name() {
+
+        return "route-table";
+    }
+
+    @Override
+    public void build(BorderGraph borderGraph, ForkJoinPool pool) {
+
+        routeTable = buildTable(borderGraph, pool);
+    }
+
+    private static RouteTable buildTable(BorderGraph borderGraph, ForkJoinPool pool) {
+
+        var startedAt = System.nanoTime();
+        if (borderGraph.size() > Short.MAX_VALUE) {
+            throw new IllegalStateException(
+                "Precomputed routing supports at most %d countries, got %d".formatted(
+                    Short.MAX_VALUE, borderGraph.size()));
+        }
+
+        var predecessors = new short[borderGraph.size()][];
+        PerSourceTask.forEach(pool, borderGraph.size(), () -> {
+            var queue = new int[borderGraph.size()];
+            return origin -> predecessors[origin] = searchFrom(borderGraph, origin, queue);
+        });
+
+        log.info("Precomputed routes for {} countries in {} ms on {} threads",
+            borderGraph.size(), (System.nanoTime() - startedAt) / 1_000_000, pool.getParallelism());
+
+        return new RouteTable(borderGraph, predecessors);
+    }
+
+    private static short[] searchFrom(BorderGraph borderGraph, int origin, int[] queue) {
+
+        var offsets = borderGraph.offsets();
+        var neighbours = borderGraph.neighbours();
+        var predecessor = new short[borderGraph.size()];
+        Arrays.fill(predecessor, UNREACHABLE);
+        predecessor[origin] = (short) origin;
+
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = origin;
+
+        while (head < tail) {
+            var current = queue[head++];
+            for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                var neighbour = neighbours[edge];
+                if (predecessor[neighbour] == UNREACHABLE) {
+                    predecessor[neighbour] = (short) current;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+
+        return predecessor;
+    }
+
+    @Override
+    protected boolean hasIndexFor(BorderGraph borderGraph) {
+
+        var table = routeTable;
+        return table != null && table.borderGraph() == borderGraph;
+    }
+
+    @Override
+    protected List<String> search(BorderGraph borderGraph, int origin, int destination) {
+
+        var table = routeTable;
+        if (table == null || table.borderGraph() != borderGraph) {
+            return searchWithoutTable(borderGraph, origin, destination);
+        }
+
+        var predecessor = table.predecessors()[origin];
+        if (predecessor[destination] == UNREACHABLE) {
+            return null;
+        }
+
+        var length = 1;
+        for (var node = destination; node != origin; node = predecessor[node]) {
+            length++;
+        }
+
+        var route = new String[length];
+        var node = destination;
+        for (var position = length - 1; position >= 0; position--) {
+            route[position] = borderGraph.codeAt(node);
+            node = predecessor[node];
+        }
+
+        return List.of(route);
+    }
+
+    private static List<String> searchWithoutTable(BorderGraph borderGraph, int origin, int destination) {
+
+        var targets = new BitSet(borderGraph.size());
+        targets.set(destination);
+        var tree = ShortestPathTree.grow(borderGraph, origin, ShortestPathTree.UNLIMITED_HOPS, targets);
+
+        return tree.reaches(destination) ? tree.routeTo(destination) : null;
+    }
+
+    /**
+     * @param predecessors {@code predecessors[origin][node]} is the previous node on the shortest route
+     *                     from origin to node
+     */
+    private record RouteTable(BorderGraph borderGraph, short[][] predecessors) {
+    }
+}
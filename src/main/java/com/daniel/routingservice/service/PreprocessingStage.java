@@ -0,0 +1,29 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An index derived from the border graph (route tables, landmarks, ...) that {@link GraphPreprocessor}
+ * builds after startup and after every reload of the country data.
+ * <p>
+ * Building may take long and happens while requests are already served, so users of the index must keep
+ * answering correctly, if more slowly, until it exists and whenever it was built for a graph other than
+ * the one at hand.
+ */
+public interface PreprocessingStage {
+
+    /**
+     * Tags the stage's timings and health details; lower-case words separated by hyphens.
+     */
+    String name();
+
+    /**
+     * Builds the index for {@code borderGraph} and swaps it in.
+     *
+     * @param pool pool to run the independent parts of the work on, e.g. one search per source country;
+     *             it is shared with the other stages and must not be shut down
+     */
+    void build(BorderGraph borderGraph, ForkJoinPool pool);
+}
@@ -0,0 +1,150 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RouteResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Meters of the route searches run by the engines, all tagged with the {@code metric} of the request.
+ * <ul>
+ *     <li>{@code routing.route.requests} - searches per {@code outcome}: {@code found},
+ *     {@code route_not_found}, {@code country_not_found}, {@code layer_not_found}</li>
+ *     <li>{@code routing.route.hops} - total border crossings of the routes found</li>
+ *     <li>{@code routing.search.expanded} - total countries expanded by the searches</li>
+ *     <li>{@code routing.route} - search time per {@code outcome}, for one in {@code sample-every}
+ *     searches</li>
+ * </ul>
+ * A timer or distribution summary costs two clock reads and a few contended updates per recording, which
+ * is comparable to a whole short search. So only the timer is sampled; the counters are plain
+ * {@link LongAdder}s that the registry reads on scrape, and averages (hops per route, expanded countries
+ * per search) are ratios of them. All meters are registered up front, so recording is an array lookup and
+ * never goes through tag matching.
+ */
+@Component
+public class RoutingMetrics {
+
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final String[] OUTCOMES = {
+        "found", "route_not_found", "country_not_found", "layer_not_found"};
+    private static final int FOUND = 0;
+    private static final int ROUTE_NOT_FOUND = 1;
+    private static final int COUNTRY_NOT_FOUND = 2;
+    private static final int LAYER_NOT_FOUND = 3;
+
+    private final int sampleEvery;
+    // Indexed by metric ordinal * OUTCOMES.length + outcome
+    private final LongAdder[] requests;
+    private final Timer[] timers;
+    // Indexed by metric ordinal
+    private final LongAdder[] hops;
+    private final LongAdder[] expandedNodes;
+
+    public RoutingMetrics(
+        MeterRegistry meterRegistry,
+        @Value("${app.routing.metrics.sample-every}") int sampleEvery) {
+
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException(
+                "app.routing.metrics.sample-every must be at least 1, got " + sampleEvery);
+        }
+        this.sampleEvery = sampleEvery;
+
+        var metrics = RouteMetric.values();
+        requests = new LongAdder[metrics.length * OUTCOMES.length];
+        timers = new Timer[metrics.length * OUTCOMES.length];
+        hops = new LongAdder[metrics.length];
+        expandedNodes = new LongAdder[metrics.length];
+
+        for (var metric : metrics) {
+            var metricTag = metric.name().toLowerCase(Locale.ROOT);
+            for (var outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                var slot = metric.ordinal() * OUTCOMES.length + outcome;
+                requests[slot] = counter(meterRegistry, "routing.route.requests", "Route searches",
+                    "metric", metricTag, "outcome", OUTCOMES[outcome]);
+                timers[slot] = Timer.builder("routing.route")
+                    .description("Time to find a route, excluding cache hits; sampled")
+                    .tag("metric", metricTag)
+                    .tag("outcome", OUTCOMES[outcome])
+                    .register(meterRegistry);
+            }
+            hops[metric.ordinal()] = counter(meterRegistry, "routing.route.hops",
+                "Border crossings of the routes found", "metric", metricTag);
+            expandedNodes[metric.ordinal()] = counter(meterRegistry, "routing.search.expanded",
+                "Countries expanded by route searches", "metric", metricTag);
+        }
+    }
+
+    /**
+     * @return the start time when this search is timed, otherwise {@link #NOT_TIMED}
+     */
+    long startTiming() {
+
+        if (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    void recordFound(RouteMetric metric, RouteResponse route, long startedAt) {
+
+        record(metric, FOUND, startedAt);
+        hops[metric.ordinal()].add(route.route().size() - 1);
+    }
+
+    void recordRouteNotFound(RouteMetric metric, long startedAt) {
+
+        record(metric, ROUTE_NOT_FOUND, startedAt);
+    }
+
+    void recordCountryNotFound(RouteMetric metric, long startedAt) {
+
+        record(metric, COUNTRY_NOT_FOUND, startedAt);
+    }
+
+    void recordLayerNotFound(RouteMetric metric, long startedAt) {
+
+        record(metric, LAYER_NOT_FOUND, startedAt);
+    }
+
+    void recordExpandedNodes(RouteMetric metric, int expanded) {
+
+        expandedNodes[metric.ordinal()].add(expanded);
+    }
+
+    private void record(RouteMetric metric, int outcome, long startedAt) {
+
+        var slot = metric.ordinal() * OUTCOMES.length + outcome;
+        requests[slot].increment();
+        if (startedAt != NOT_TIMED) {
+            timers[slot].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Registers a counter that reads the returned adder; the meter only holds it weakly, the arrays above
+     * keep it.
+     */
+    private static LongAdder counter(
+        MeterRegistry meterRegistry,
+        String name,
+        String description,
+        String... tags) {
+
+        var adder = new LongAdder();
+        FunctionCounter.builder(name, adder, LongAdder::sum)
+            .description(description)
+            .tags(tags)
+            .register(meterRegistry);
+        return adder;
+    }
+}
@@ -1,8 +1,24 @@
 package com.daniel.routingservice.service;
 
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
 import com.daniel.routingservice.model.RouteResponse;
 
 public interface RoutingService {
 
-    RouteResponse findRoute(String origin, String destination);
-}
\ No newline at end of file
+    RouteResponse findRoute(
+        String origin,
+        String destination,
+        RouteMetric metric,
+        RouteConstraints constraints);
+
+    default RouteResponse findRoute(String origin, String destination, RouteMetric metric) {
+
+        return findRoute(origin, destination, metric, RouteConstraints.NONE);
+    }
+
+    default RouteResponse findRoute(String origin, String destination) {
+
+        return findRoute(origin, destination, RouteMetric.HOPS);
+    }
+}
@@ -0,0 +1,66 @@
+package com.daniel.routingservice.service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reusable search buffers that work on both platform and virtual threads.
+ * <p>
+ * A platform thread serves request after request, so it simply keeps its own instance in a
+ * {@link ThreadLocal}. A virtual thread lives for a single request: a thread-local would allocate and
+ * initialize fresh buffers every time and leave them to the garbage collector, so virtual threads borrow
+ * from a shared lock-free queue instead and must {@link #release} what they took. The queue keeps at most
+ * {@code capacity} idle instances.
+ */
+final class ScratchPool<T> {
+
+    // Receives the pool, so that instances can release themselves
+    private final Function<ScratchPool<T>, T> factory;
+    private final ThreadLocal<T> perThread;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int capacity;
+
+    ScratchPool(Function<ScratchPool<T>, T> factory) {
+
+        this(factory, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    ScratchPool(Function<ScratchPool<T>, T> factory, int capacity) {
+
+        this.factory = factory;
+        this.perThread = ThreadLocal.withInitial(() -> factory.apply(this));
+        this.capacity = capacity;
+    }
+
+    T acquire() {
+
+        if (!Thread.currentThread().isVirtual()) {
+            return perThread.get();
+        }
+
+        var instance = idle.poll();
+        if (instance == null) {
+            return factory.apply(this);
+        }
+        idleCount.decrementAndGet();
+        return instance;
+    }
+
+    /**
+     * Returns an instance taken with {@link #acquire} on the same thread; a no-op on platform threads.
+     */
+    void release(T instance) {
+
+        if (!Thread.currentThread().isVirtual()) {
+            return;
+        }
+
+        if (idleCount.incrementAndGet() <= capacity) {
+            idle.offer(instance);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
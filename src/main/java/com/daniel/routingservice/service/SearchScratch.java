@@ -0,0 +1,118 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-thread working buffers for graph searches.
+ * <p>
+ * Visited marks are stamped with a search epoch instead of being cleared, so starting a new search is
+ * O(1) and a request allocates nothing until the final route is built.
+ * <p>
+ * Scratches come from a {@link ScratchPool}; use them in try-with-resources so that virtual threads hand
+ * them back.
+ */
+final class SearchScratch implements AutoCloseable {
+
+    private static final ScratchPool<SearchScratch> CURRENT = new ScratchPool<>(SearchScratch::new);
+    private static final ScratchPool<SearchScratch> BACKWARD = new ScratchPool<>(SearchScratch::new);
+
+    private final ScratchPool<SearchScratch> pool;
+
+    int[] queue = new int[0];
+    // End of the filled part of the queue, for searches that expand it level by level
+    int tail;
+    int[] predecessor = new int[0];
+    private int[] visitedEpoch = new int[0];
+    private int epoch;
+
+    private SearchScratch(ScratchPool<SearchScratch> pool) {
+
+        this.pool = pool;
+    }
+
+    /**
+     * @return a scratch for the calling thread, sized for {@code graphSize} nodes and with no node
+     *         visited
+     */
+    static SearchScratch acquire(int graphSize) {
+
+        var scratch = CURRENT.acquire();
+        scratch.reset(graphSize);
+        return scratch;
+    }
+
+    /**
+     * Second, independent scratch for the destination side of a bidirectional search.
+     */
+    static SearchScratch acquireBackward(int graphSize) {
+
+        var scratch = BACKWARD.acquire();
+        scratch.reset(graphSize);
+        return scratch;
+    }
+
+    @Override
+    public void close() {
+
+        pool.release(this);
+    }
+
+    private void reset(int graphSize) {
+
+        if (visitedEpoch.length < graphSize) {
+            queue = new int[graphSize];
+            predecessor = new int[graphSize];
+            visitedEpoch = new int[graphSize];
+            epoch = 0;
+        }
+
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitedEpoch, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Marks {@code node} as visited from {@code from}.
+     *
+     * @return {@code false} when the node was already visited in the current search
+     */
+    boolean visit(int node, int from) {
+
+        if (visitedEpoch[node] == epoch) {
+            return false;
+        }
+        visitedEpoch[node] = epoch;
+        predecessor[node] = from;
+        return true;
+    }
+
+    boolean isVisited(int node) {
+
+        return visitedEpoch[node] == epoch;
+    }
+
+    /**
+     * Builds the route by following predecessors back from {@code destination}, which must have been
+     * visited.
+     */
+    List<String> routeTo(BorderGraph borderGraph, int origin, int destination) {
+
+        var length = 1;
+        for (var node = destination; node != origin; node = predecessor[node]) {
+            length++;
+        }
+
+        var route = new String[length];
+        var node = destination;
+        for (var position = length - 1; position >= 0; position--) {
+            route[position] = borderGraph.codeAt(node);
+            node = predecessor[node];
+        }
+
+        return List.of(route);
+    }
+}
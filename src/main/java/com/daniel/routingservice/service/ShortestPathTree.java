@@ -0,0 +1,123 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * BFS tree of shortest routes from one origin, answering routes to any number of destinations.
+ * <p>
+ * Neighbours are visited in graph order and keep their first predecessor, so each route is the same one
+ * {@link BfsRoutingService} returns for that pair.
+ */
+final class ShortestPathTree {
+
+    static final int UNLIMITED_HOPS = Integer.MAX_VALUE;
+
+    private static final int UNREACHED = -1;
+
+    private final BorderGraph borderGraph;
+    private final int origin;
+    private final int[] predecessor;
+    private final int[] hops;
+    // Reached nodes in BFS order, i.e. sorted by hop count
+    private final int[] reached;
+    private int reachedCount;
+
+    private ShortestPathTree(BorderGraph borderGraph, int origin) {
+
+        this.borderGraph = borderGraph;
+        this.origin = origin;
+        this.predecessor = new int[borderGraph.size()];
+        this.hops = new int[borderGraph.size()];
+        this.reached = new int[borderGraph.size()];
+        Arrays.fill(hops, UNREACHED);
+    }
+
+    /**
+     * Grows the tree from {@code origin} up to {@code maxHops} borders away.
+     *
+     * @param targets when not {@code null}, the search stops as soon as all of these nodes are reached
+     */
+    static ShortestPathTree grow(BorderGraph borderGraph, int origin, int maxHops, BitSet targets) {
+
+        var tree = new ShortestPathTree(borderGraph, origin);
+        var offsets = borderGraph.offsets();
+        var neighbours = borderGraph.neighbours();
+        var predecessor = tree.predecessor;
+        var hops = tree.hops;
+        var queue = tree.reached;
+        var remainingTargets = targets != null ? targets.cardinality() : Integer.MAX_VALUE;
+        var head = 0;
+        var tail = 0;
+
+        predecessor[origin] = origin;
+        hops[origin] = 0;
+        queue[tail++] = origin;
+        if (targets != null && targets.get(origin)) {
+            remainingTargets--;
+        }
+
+        while (head < tail && remainingTargets > 0) {
+            var current = queue[head++];
+            if (hops[current] == maxHops) {
+                continue;
+            }
+
+            for (var edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                var neighbour = neighbours[edge];
+                if (hops[neighbour] != UNREACHED) {
+                    continue;
+                }
+
+                predecessor[neighbour] = current;
+                hops[neighbour] = hops[current] + 1;
+                queue[tail++] = neighbour;
+                if (targets != null && targets.get(neighbour)) {
+                    remainingTargets--;
+                }
+            }
+        }
+
+        tree.reachedCount = tail;
+        return tree;
+    }
+
+    int origin() {
+
+        return origin;
+    }
+
+    boolean reaches(int node) {
+
+        return hops[node] != UNREACHED;
+    }
+
+    int reachedCount() {
+
+        return reachedCount;
+    }
+
+    /**
+     * @return the {@code position}-th reached node, in order of increasing hop count
+     */
+    int reachedAt(int position) {
+
+        return reached[position];
+    }
+
+    /**
+     * Route from the origin to a reached node.
+     */
+    List<String> routeTo(int node) {
+
+        var route = new String[hops[node] + 1];
+        for (var position = route.length - 1; position >= 0; position--) {
+            route[position] = borderGraph.codeAt(node);
+            node = predecessor[node];
+        }
+        return List.of(route);
+    }
+}
@@ -0,0 +1,35 @@
+package com.daniel.routingservice;
+
+import com.daniel.routingservice.service.RoutingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The reload operation is only mapped when the endpoint's access is raised from the default read-only
+@TestPropertySource(properties = "management.endpoint.countries.access=unrestricted")
+class CountryDataReloadIT extends IntegrationTest {
+
+    @Autowired
+    private RoutingService routingService;
+
+    @Test
+    void countriesEndpoint_shouldReloadSnapshot_whenPosted() throws Exception {
+
+        var before = mockMvc.perform(get("/actuator/countries"))
+            .andReturn().getResponse().getContentAsString();
+        var previousVersion = objectMapper.readTree(before).get("version").asLong();
+
+        mockMvc.perform(post("/actuator/countries"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(previousVersion + 1))
+            .andExpect(jsonPath("$.countries").value(250));
+
+        assertThat(routingService.findRoute("CZE", "ITA").route()).startsWith("CZE").endsWith("ITA");
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 import java.nio.charset.StandardCharsets;
 
@@ -46,6 +47,26 @@ public abstract class IntegrationTest {
         );
     }
 
+    protected <R> R performPostRequestAndReturnResponse(
+        String endpoint,
+        Object requestBody,
+        Class<R> responseClass) throws Exception {
+
+        var result = mockMvc.perform(
+                post(endpoint)
+                    .characterEncoding(StandardCharsets.UTF_8)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestBody))
+            )
+            .andReturn();
+
+        return objectMapper.readValue(
+            result.getResponse().getContentAsString(),
+            responseClass
+        );
+    }
+
     private MvcResult performRequestForResult(String endpoint, String... pathVariables) throws Exception {
 
         return mockMvc.perform(
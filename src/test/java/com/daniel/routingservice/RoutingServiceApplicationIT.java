@@ -1,15 +1,98 @@
 package com.daniel.routingservice;
 
+import com.daniel.routingservice.service.CachingRoutingService;
+import com.daniel.routingservice.service.RoutingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.context.ApplicationContext;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+// Metrics export (and so the Prometheus endpoint) is off in Spring Boot tests unless asked for
+@AutoConfigureObservability(tracing = false)
 class RoutingServiceApplicationIT extends IntegrationTest {
 
+    @Autowired
+    private RoutingService routingService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void springContextShouldLoad(ApplicationContext applicationContext) {
 
         assertThat(applicationContext).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void routingService_shouldBeCached_whenCacheEnabled() {
+
+        routingService.findRoute("CZE", "ITA");
+
+        assertThat(routingService).isInstanceOf(CachingRoutingService.class);
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "routes").meters()).isNotEmpty();
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "routes").meters()).isNotEmpty();
+    }
+
+    @Test
+    void prometheusEndpoint_shouldExposeRoutingMetrics() throws Exception {
+
+        routingService.findRoute("CZE", "ITA");
+
+        var scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+            .contains("routing_route_seconds_bucket{")
+            .contains("routing_route_requests_total{")
+            .contains("routing_route_hops_total{")
+            .contains("routing_graph_countries 250");
+    }
+
+    @Test
+    void countriesEndpoint_shouldOnlyServeSnapshot_whenAccessIsDefault() throws Exception {
+
+        mockMvc.perform(get("/actuator/countries"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.countries").value(250));
+
+        mockMvc.perform(post("/actuator/countries"))
+            .andExpect(status().isMethodNotAllowed());
+    }
+
+    @Test
+    void readinessProbe_shouldBeUp_whenPreprocessingFinished() throws Exception {
+
+        // Preprocessing runs in the background after startup; with the default engine only the distance
+        // oracle is built
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        var readiness = mockMvc.perform(get("/actuator/health/readiness")).andReturn().getResponse();
+        while (readiness.getStatus() != 200 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            readiness = mockMvc.perform(get("/actuator/health/readiness")).andReturn().getResponse();
+        }
+
+        assertThat(readiness.getStatus()).isEqualTo(200);
+        assertThat(objectMapper.readTree(readiness.getContentAsString()).get("status").asText())
+            .isEqualTo("UP");
+    }
+
+    @Test
+    void distanceEndpoint_shouldReturnExactHops_whenGraphIsSmall() throws Exception {
+
+        mockMvc.perform(get("/routing/{origin}/{destination}/distance", "prt", "chn"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.origin").value("PRT"))
+            .andExpect(jsonPath("$.exact").value(true))
+            .andExpect(jsonPath("$.lowerBound").value(6))
+            .andExpect(jsonPath("$.upperBound").value(6));
+    }
+}
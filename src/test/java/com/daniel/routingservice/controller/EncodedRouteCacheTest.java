@@ -0,0 +1,210 @@
+package com.daniel.routingservice.controller;
+
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryDataReloadedEvent;
+import com.daniel.routingservice.service.CachingRoutingService;
+import com.daniel.routingservice.service.CachingRoutingService.RouteKey;
+import com.daniel.routingservice.service.RoutingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EncodedRouteCacheTest {
+
+    @Mock
+    private RoutingService routingService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AsyncCache<RouteKey, EncodedRouteCache.EncodedRoute> cache = Caffeine.newBuilder()
+        .maximumSize(100)
+        .executor(Runnable::run)
+        .buildAsync();
+
+    @Test
+    void findRoute_shouldEncodeOnce_whenSamePairRequestedTwice() throws Exception {
+
+        var encodedRouteCache = new EncodedRouteCache(routingService, objectMapper, cache, false);
+        var route = new RouteResponse(List.of("CZE", "AUT", "ITA"));
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(route);
+
+        var first = encodedRouteCache.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE);
+        var second = encodedRouteCache.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.json()).isEqualTo(objectMapper.writeValueAsBytes(route));
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(first.gzipped()).isNull();
+        verify(routingService, times(1)).findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE);
+    }
+
+    @Test
+    void findRoute_shouldGiveSameEtag_whenSameRouteEncodedByAnotherInstance() {
+
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
+        when(routingService.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT")));
+
+        var cached = new EncodedRouteCache(routingService, objectMapper, cache, true);
+        var uncached = new EncodedRouteCache(routingService, objectMapper, null, true);
+
+        assertThat(uncached.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE).etag())
+            .isEqualTo(cached.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE).etag())
+            .isNotEqualTo(cached.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE).etag());
+    }
+
+    @Test
+    void findRoute_shouldKeepGzipOnlyWhenSmaller_whenGzipEnabled() {
+
+        var encodedRouteCache = new EncodedRouteCache(routingService, objectMapper, cache, true);
+        when(routingService.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT")));
+        when(routingService.findRoute("PRT", "CHN", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(Collections.nCopies(40, "CZE")));
+
+        var shortRoute = encodedRouteCache.findRoute(
+            "CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE);
+        var longRoute = encodedRouteCache.findRoute(
+            "PRT", "CHN", RouteMetric.HOPS, RouteConstraints.NONE);
+
+        assertThat(shortRoute.gzipped()).isNull();
+        assertThat(shortRoute.gzippedEtag()).isNull();
+        assertThat(longRoute.gzipped()).hasSizeLessThan(longRoute.json().length);
+        assertThat(longRoute.gzippedEtag()).isNotEqualTo(longRoute.etag());
+    }
+
+    @Test
+    void findRoute_shouldNotCacheErrors_whenRouteNotFound() {
+
+        var encodedRouteCache = new EncodedRouteCache(routingService, objectMapper, cache, true);
+        when(routingService.findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenThrow(new RouteNotFoundException("CZE", "USA"));
+
+        assertThatThrownBy(
+            () -> encodedRouteCache.findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .isInstanceOf(RouteNotFoundException.class);
+        assertThatThrownBy(
+            () -> encodedRouteCache.findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .isInstanceOf(RouteNotFoundException.class);
+
+        verify(routingService, times(2)).findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE);
+        assertThat(cache.synchronous().estimatedSize()).isZero();
+    }
+
+    @Test
+    void findRoute_shouldLogNothingAtWarn_whenRequestRejected() {
+
+        var encodedRouteCache = new EncodedRouteCache(routingService, objectMapper, cache, true);
+        when(routingService.findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenThrow(new RouteNotFoundException("CZE", "USA"));
+        when(routingService.findRoute("XXX", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenThrow(new CountryNotFoundException("XXX"));
+
+        // Caffeine logs through System.Logger, which ends up in java.util.logging without a bridge
+        var caffeineLog = Logger.getLogger("com.github.benmanes.caffeine");
+        var warnings = new ArrayList<LogRecord>();
+        var handler = new Handler() {
+
+            @Override
+            public void publish(LogRecord record) {
+
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    warnings.add(record);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        caffeineLog.addHandler(handler);
+        try {
+            assertThatThrownBy(() -> encodedRouteCache.findRoute(
+                    "CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+                .isInstanceOf(RouteNotFoundException.class);
+            assertThatThrownBy(() -> encodedRouteCache.findRoute(
+                    "XXX", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
+                .isInstanceOf(CountryNotFoundException.class);
+        } finally {
+            caffeineLog.removeHandler(handler);
+        }
+
+        assertThat(warnings).isEmpty();
+    }
+
+    @Test
+    void onCountryDataReloaded_shouldClearCache() {
+
+        var encodedRouteCache = new EncodedRouteCache(routingService, objectMapper, cache, true);
+        when(routingService.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT")));
+        encodedRouteCache.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE);
+
+        encodedRouteCache.onCountryDataReloaded(new CountryDataReloadedEvent(null, 2));
+
+        assertThat(cache.synchronous().estimatedSize()).isZero();
+    }
+
+    @Test
+    void onCountryDataReloaded_shouldClearAfterRoutingServiceCache_whenBothListen() {
+
+        var routeCache = Caffeine.newBuilder()
+            .maximumSize(100)
+            .executor(Runnable::run)
+            .<RouteKey, Object>buildAsync();
+        var routeEntries = spy(routeCache.synchronous());
+        var encodedEntries = spy(cache.synchronous());
+        var routes = spy(routeCache);
+        var encoded = spy(cache);
+        when(routes.synchronous()).thenReturn(routeEntries);
+        when(encoded.synchronous()).thenReturn(encodedEntries);
+
+        try (var context = new GenericApplicationContext()) {
+            // The outer cache is registered first, so only the listener order can clear it second
+            context.registerBean(EncodedRouteCache.class,
+                () -> new EncodedRouteCache(routingService, objectMapper, encoded, true));
+            context.registerBean(CachingRoutingService.class,
+                () -> new CachingRoutingService(routingService, routes, true));
+            AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+            context.refresh();
+
+            context.publishEvent(new CountryDataReloadedEvent(null, 2));
+        }
+
+        var order = inOrder(routeEntries, encodedEntries);
+        order.verify(routeEntries).invalidateAll();
+        order.verify(encodedEntries).invalidateAll();
+    }
+}
@@ -0,0 +1,44 @@
+package com.daniel.routingservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RateLimitedLogTest {
+
+    private final Logger logger = mock(Logger.class);
+
+    @Test
+    void warn_shouldLogOnlyFirstMessage_whenFloodArrivesWithinInterval() {
+
+        var rateLimitedLog = new RateLimitedLog(logger, Duration.ofHours(1));
+
+        for (var attempt = 0; attempt < 1000; attempt++) {
+            rateLimitedLog.warn("Bad request: {}", "Country not found: 'XXX'");
+        }
+
+        verify(logger, times(1)).warn(anyString(), eq((Object) "Country not found: 'XXX'"));
+    }
+
+    @Test
+    void warn_shouldReportSuppressedCount_whenIntervalHasPassed() throws InterruptedException {
+
+        var rateLimitedLog = new RateLimitedLog(logger, Duration.ofMillis(20));
+
+        rateLimitedLog.warn("Bad request: {}", "first");
+        rateLimitedLog.warn("Bad request: {}", "dropped");
+        rateLimitedLog.warn("Bad request: {}", "dropped");
+        Thread.sleep(50);
+        rateLimitedLog.warn("Bad request: {}", "second");
+
+        verify(logger).warn("Bad request: {}", (Object) "first");
+        verify(logger).warn("Bad request: {} ({} similar messages suppressed)", "second", 2L);
+    }
+}
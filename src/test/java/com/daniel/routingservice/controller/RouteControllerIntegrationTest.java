@@ -1,17 +1,30 @@
 package com.daniel.routingservice.controller;
 
 import com.daniel.routingservice.IntegrationTest;
+import com.daniel.routingservice.model.AlternativeRoutesResponse;
+import com.daniel.routingservice.model.BatchRouteRequest;
+import com.daniel.routingservice.model.BatchRouteResponse;
+import com.daniel.routingservice.model.RoutePair;
 import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.RouteResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Stream;
 
+import static com.daniel.routingservice.controller.RouteEndpoints.GET_ALTERNATIVES;
 import static com.daniel.routingservice.controller.RouteEndpoints.GET_ROUTE;
+import static com.daniel.routingservice.controller.RouteEndpoints.GET_ROUTES_FROM;
+import static com.daniel.routingservice.controller.RouteEndpoints.POST_BATCH;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
 class RouteControllerIntegrationTest extends IntegrationTest {
 
@@ -88,6 +101,120 @@ class RouteControllerIntegrationTest extends IntegrationTest {
         assertThat(result.route().getLast()).isEqualTo("ITA");
     }
 
+    @Test
+    void findRoute_shouldReturnShortestRouteByDistance_whenDistanceMetricRequested() throws Exception {
+
+        var byHops = performRequestAndReturnResponse(GET_ROUTE, RouteResponse.class, "PRT", "CHN");
+        var byDistance = performRequestAndReturnResponse(
+            GET_ROUTE + "?metric=distance", RouteResponse.class, "PRT", "CHN");
+
+        assertThat(byHops.distanceKm()).isNull();
+        assertThat(byDistance.route().getFirst()).isEqualTo("PRT");
+        assertThat(byDistance.route().getLast()).isEqualTo("CHN");
+        assertThat(byDistance.route().size()).isGreaterThanOrEqualTo(byHops.route().size());
+        assertThat(byDistance.distanceKm()).isPositive();
+    }
+
+    @Test
+    void findAlternativeRoutes_shouldReturnDistinctRoutes_whenLongRouteRequested() throws Exception {
+
+        var result = performRequestAndReturnResponse(
+            GET_ALTERNATIVES + "?k=10", AlternativeRoutesResponse.class, "PRT", "CHN");
+
+        assertThat(result.routes()).hasSize(10).doesNotHaveDuplicates()
+            .allSatisfy(
+                route -> assertThat(route).startsWith("PRT").endsWith("CHN").doesNotHaveDuplicates());
+        assertThat(result.routes()).isSortedAccordingTo(Comparator.comparingInt(List::size));
+    }
+
+    @Test
+    void findRoute_shouldAvoidCountriesAndPassViaCountries_whenConstraintsGiven() throws Exception {
+
+        var result = performRequestAndReturnResponse(
+            GET_ROUTE + "?avoid=AUT,CHE&via=POL", RouteResponse.class, "CZE", "ITA");
+
+        assertThat(result.route()).startsWith("CZE").endsWith("ITA").contains("POL")
+            .doesNotContain("AUT", "CHE");
+    }
+
+    @Test
+    void findRoute_shouldReachIslands_whenFerryAndTunnelLayersRequested() throws Exception {
+
+        var throughTunnel = performRequestAndReturnResponse(
+            GET_ROUTE + "?layers=tunnel", RouteResponse.class, "GBR", "FRA");
+        var byFerry = performRequestAndReturnResponse(
+            GET_ROUTE + "?layers=ferry,tunnel&metric=distance", RouteResponse.class, "IRL", "JPN");
+        var landOnly = performRequestAndReturnResponse(GET_ROUTE, "GBR", "FRA");
+
+        assertThat(throughTunnel.route()).containsExactly("GBR", "FRA");
+        assertThat(byFerry.route()).startsWith("IRL").endsWith("KOR", "JPN");
+        assertThat(byFerry.distanceKm()).isPositive();
+        assertThat(landOnly.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void findAlternativeRoutes_shouldReturnBadRequest_whenKTooLarge() throws Exception {
+
+        var result = performRequestAndReturnResponse(GET_ALTERNATIVES + "?k=1000", "PRT", "CHN");
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void findRoutes_shouldResolveEveryPair_whenBatchMixesValidAndInvalidPairs() throws Exception {
+
+        var request = new BatchRouteRequest(List.of(
+            new RoutePair("CZE", "ITA"),
+            new RoutePair("CZE", "AUS"),
+            new RoutePair("XXX", "ITA"),
+            new RoutePair("cze", "aut")));
+
+        var result = performPostRequestAndReturnResponse(POST_BATCH, request, BatchRouteResponse.class);
+
+        assertThat(result.results()).hasSize(4);
+        assertThat(result.results().get(0).route()).startsWith("CZE").endsWith("ITA");
+        assertThat(result.results().get(1).error()).isNotBlank();
+        assertThat(result.results().get(2).error()).contains("XXX");
+        assertThat(result.results().get(3).route()).containsExactly("CZE", "AUT");
+    }
+
+    @Test
+    void findRoutesFrom_shouldReturnRoutesWithinMaxHops_whenLimitGiven() throws Exception {
+
+        var result = performRequestAndReturnResponse(
+            GET_ROUTES_FROM + "?maxHops=1",
+            BatchRouteResponse.class,
+            "CZE");
+
+        assertThat(result.results())
+            .extracting(RouteResult::destination)
+            .containsExactlyInAnyOrder("AUT", "DEU", "POL", "SVK");
+    }
+
+    @Test
+    void findRoutesFrom_shouldReportHopLimit_whenDestinationIsJustBeyondMaxHops() throws Exception {
+
+        var result = performRequestAndReturnResponse(
+            GET_ROUTES_FROM + "?destinations=DEU,FRA,AUS&maxHops=1",
+            BatchRouteResponse.class,
+            "CZE");
+
+        assertThat(result.results()).extracting(RouteResult::destination)
+            .containsExactly("DEU", "FRA", "AUS");
+        assertThat(result.results().get(0).route()).containsExactly("CZE", "DEU");
+        assertThat(result.results().get(1).error())
+            .isEqualTo("Route from 'CZE' to 'FRA' crosses more than 1 borders");
+        assertThat(result.results().get(2).error()).isEqualTo("No land route found from 'CZE' to 'AUS'");
+    }
+
+    @Test
+    void findRoutesFrom_shouldReturnBadRequest_whenMaxHopsIsNegative() throws Exception {
+
+        var result = performRequestAndReturnResponse(GET_ROUTES_FROM + "?maxHops=-1", "CZE");
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
     static Stream<Arguments> invalidCountryScenarios() {
 
         return Stream.of(
@@ -110,4 +237,33 @@ class RouteControllerIntegrationTest extends IntegrationTest {
         assertThat(result.getResponse().getStatus())
             .isEqualTo(HttpStatus.BAD_REQUEST.value());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findRoute_shouldReturnProblemDetails_whenNoLandRouteExists() throws Exception {
+
+        var result = performRequestAndReturnResponse(GET_ROUTE, "CZE", "AUS");
+        var problem = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        assertThat(result.getResponse().getContentType())
+            .isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(problem.get("title").asText()).isEqualTo("Route not found");
+        assertThat(problem.get("detail").asText()).isEqualTo("No land route found from 'CZE' to 'AUS'");
+        assertThat(problem.get("instance").asText()).isEqualTo("/routing/CZE/AUS");
+    }
+
+    @Test
+    void findRoute_shouldReturnNotModified_whenRevalidatingWithEtag() throws Exception {
+
+        var first = performRequestAndReturnResponse(GET_ROUTE, "PRT", "CHN").getResponse();
+        var etag = first.getHeader(HttpHeaders.ETAG);
+
+        var revalidated = mockMvc.perform(get(GET_ROUTE, "PRT", "CHN")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andReturn().getResponse();
+
+        assertThat(first.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(etag).isNotBlank();
+        assertThat(revalidated.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(revalidated.getContentAsByteArray()).isEmpty();
+    }
+}
@@ -1,43 +1,78 @@
 package com.daniel.routingservice.controller;
 
+import com.daniel.routingservice.model.DistanceResponse;
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RoutePair;
 import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.RouteResult;
 import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.LayerNotFoundException;
 import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.service.AlternativeRoutingService;
+import com.daniel.routingservice.service.BatchRoutingService;
 import com.daniel.routingservice.service.BfsRoutingService;
+import com.daniel.routingservice.service.DistanceOracle;
 import com.daniel.routingservice.service.RoutingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class RouteControllerTest {
 
     private final RoutingService routingService = mock(BfsRoutingService.class);
-    private final RouteController routeController = new RouteController(routingService);
+    private final BatchRoutingService batchRoutingService = mock(BatchRoutingService.class);
+    private final AlternativeRoutingService alternativeRoutingService =
+        mock(AlternativeRoutingService.class);
+    private final DistanceOracle distanceOracle = mock(DistanceOracle.class);
+    private final RouteController routeController = new RouteController(
+        new EncodedRouteCache(routingService, new ObjectMapper(), null, true),
+        batchRoutingService,
+        alternativeRoutingService,
+        distanceOracle,
+        new ObjectMapper());
 
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
 
-        mockMvc = MockMvcBuilders.standaloneSetup(routeController, new RouteExceptionHandler()).build();
+        var routeExceptionHandler =
+            new RouteExceptionHandler(new SimpleMeterRegistry(), Duration.ofSeconds(10));
+        mockMvc = MockMvcBuilders.standaloneSetup(routeController, routeExceptionHandler).build();
     }
 
     @Test
     void findRoute_shouldReturnDirectRoute_whenRouteExists() throws Exception {
 
-        when(routingService.findRoute("CZE", "ITA"))
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA"))
@@ -52,7 +87,7 @@ class RouteControllerTest {
     @Test
     void findRoute_shouldReturnDirectRoute_whenCountriesShareBorder() throws Exception {
 
-        when(routingService.findRoute("CZE", "AUT"))
+        when(routingService.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenReturn(new RouteResponse(List.of("CZE", "AUT")));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "AUT"))
@@ -65,7 +100,7 @@ class RouteControllerTest {
     @Test
     void findRoute_shouldReturnSingleCountry_whenOriginEqualsDestination() throws Exception {
 
-        when(routingService.findRoute("CZE", "CZE"))
+        when(routingService.findRoute("CZE", "CZE", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenReturn(new RouteResponse(List.of("CZE")));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "CZE"))
@@ -77,17 +112,21 @@ class RouteControllerTest {
     @Test
     void findRoute_shouldReturnBadRequest_whenOriginCountryDoesNotExist() throws Exception {
 
-        when(routingService.findRoute("XXX", "ITA"))
+        when(routingService.findRoute("XXX", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenThrow(new CountryNotFoundException("XXX"));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "XXX", "ITA"))
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.title").value("Country not found"))
+            .andExpect(jsonPath("$.detail").value("Country not found: 'XXX'"))
+            .andExpect(jsonPath("$.status").value(400));
     }
 
     @Test
     void findRoute_shouldReturnBadRequest_whenDestinationCountryDoesNotExist() throws Exception {
 
-        when(routingService.findRoute("CZE", "ZZZ"))
+        when(routingService.findRoute("CZE", "ZZZ", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenThrow(new CountryNotFoundException("ZZZ"));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ZZZ"))
@@ -97,17 +136,196 @@ class RouteControllerTest {
     @Test
     void findRoute_shouldReturnBadRequest_whenNoLandRouteExists() throws Exception {
 
-        when(routingService.findRoute("CZE", "AUS"))
+        when(routingService.findRoute("CZE", "AUS", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenThrow(new RouteNotFoundException("CZE", "AUS"));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "AUS"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value("Route not found"))
+            .andExpect(jsonPath("$.detail").value("No land route found from 'CZE' to 'AUS'"));
+    }
+
+    @Test
+    void findRoute_shouldReturnRouteWithDistance_whenDistanceMetricRequested() throws Exception {
+
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.DISTANCE, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA"), 1020.5));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA").param("metric", "distance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.route.length()").value(3))
+            .andExpect(jsonPath("$.distanceKm").value(1020.5));
+    }
+
+    @Test
+    void findRoute_shouldOmitDistance_whenHopMetricUsed() throws Exception {
+
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA").param("metric", "hops"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.distanceKm").doesNotExist());
+    }
+
+    @Test
+    void findRoute_shouldReturnBadRequest_whenMetricUnknown() throws Exception {
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA").param("metric", "time"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value("Invalid request"))
+            .andExpect(jsonPath("$.detail").value("Invalid value for parameter 'metric'"));
+    }
+
+    @Test
+    void findRoute_shouldPassNormalizedConstraints_whenAvoidAndViaGiven() throws Exception {
+
+        var constraints = new RouteConstraints(List.of("AUT", "DEU"), List.of("SVK"));
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, constraints))
+            .thenReturn(new RouteResponse(List.of("CZE", "SVK", "HUN", "SVN", "ITA")));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA")
+                .param("avoid", "deu,aut")
+                .param("via", "svk"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.route[1]").value("SVK"));
+    }
+
+    @Test
+    void findRoute_shouldReturnNotModified_whenIfNoneMatchHasCurrentEtag() throws Exception {
+
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
+
+        var etag = mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.route.length()").value(3));
+    }
+
+    @Test
+    void findRoute_shouldReturnGzippedBody_whenClientAcceptsGzip() throws Exception {
+
+        var route = Collections.nCopies(40, "CZE");
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(route));
+
+        var plain = mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andReturn().getResponse();
+        var gzipped = mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse();
+
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertThat(input.readAllBytes()).isEqualTo(plain.getContentAsByteArray());
+        }
+        assertThat(gzipped.getHeader(HttpHeaders.ETAG)).isNotEqualTo(plain.getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void findRoute_shouldPassLowercaseLayers_whenLayersGiven() throws Exception {
+
+        var constraints = new RouteConstraints(List.of(), List.of(), List.of("ferry", "tunnel"));
+        when(routingService.findRoute("GBR", "FRA", RouteMetric.HOPS, constraints))
+            .thenReturn(new RouteResponse(List.of("GBR", "FRA")));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "gbr", "fra").param("layers", "Tunnel,FERRY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.route[1]").value("FRA"));
+    }
+
+    @Test
+    void findRoute_shouldReturnBadRequest_whenLayerDoesNotExist() throws Exception {
+
+        var constraints = new RouteConstraints(List.of(), List.of(), List.of("rail"));
+        when(routingService.findRoute("GBR", "FRA", RouteMetric.HOPS, constraints))
+            .thenThrow(new LayerNotFoundException("rail"));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "GBR", "FRA").param("layers", "rail"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value("Layer not found"))
+            .andExpect(jsonPath("$.detail").value("Layer not found: 'rail'"));
+    }
+
+    @Test
+    void findRoute_shouldReturnBadRequest_whenTooManyViaCountries() throws Exception {
+
+        var via = String.join(",", Collections.nCopies(RouteConstraints.MAX_VIA + 1, "AUT"));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CZE", "ITA").param("via", via))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findAlternativeRoutes_shouldReturnRoutesShortestFirst_whenKGiven() throws Exception {
+
+        when(alternativeRoutingService.findRoutes("CZE", "ITA", 2))
+            .thenReturn(List.of(List.of("CZE", "AUT", "ITA"), List.of("CZE", "DEU", "AUT", "ITA")));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ALTERNATIVES, "cze", "ita").param("k", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.routes.length()").value(2))
+            .andExpect(jsonPath("$.routes[0].length()").value(3))
+            .andExpect(jsonPath("$.routes[1][1]").value("DEU"));
+    }
+
+    @Test
+    void findAlternativeRoutes_shouldReturnBadRequest_whenNoLandRouteExists() throws Exception {
+
+        when(alternativeRoutingService.findRoutes("CZE", "AUS", 3))
+            .thenThrow(new RouteNotFoundException("CZE", "AUS"));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ALTERNATIVES, "CZE", "AUS"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findDistance_shouldReturnBounds_whenMetricGiven() throws Exception {
+
+        when(distanceOracle.findDistance("PRT", "CHN", RouteMetric.DISTANCE))
+            .thenReturn(new DistanceResponse(
+                "PRT", "CHN", RouteMetric.DISTANCE, false, 10400.5, 11250.0));
+
+        mockMvc.perform(get(RouteEndpoints.GET_DISTANCE, "prt", "chn").param("metric", "distance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.metric").value("DISTANCE"))
+            .andExpect(jsonPath("$.exact").value(false))
+            .andExpect(jsonPath("$.lowerBound").value(10400.5))
+            .andExpect(jsonPath("$.upperBound").value(11250.0));
+    }
+
+    @Test
+    void findDistance_shouldReturnBadRequest_whenCountryUnknown() throws Exception {
+
+        when(distanceOracle.findDistance("CZE", "XXX", RouteMetric.HOPS))
+            .thenThrow(new CountryNotFoundException("XXX"));
+
+        mockMvc.perform(get(RouteEndpoints.GET_DISTANCE, "CZE", "XXX"))
             .andExpect(status().isBadRequest());
     }
 
     @Test
     void findRoute_shouldReturnNormalizedRoute_whenLowercaseCodesProvided() throws Exception {
 
-        when(routingService.findRoute("CZE", "ITA"))
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "cze", "ita"))
@@ -118,11 +336,149 @@ class RouteControllerTest {
     @Test
     void findRoute_shouldReturnNormalizedRoute_whenMixedCaseCodesProvided() throws Exception {
 
-        when(routingService.findRoute("CZE", "ITA"))
+        when(routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
             .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
 
         mockMvc.perform(get(RouteEndpoints.GET_ROUTE, "CzE", "ItA"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.route[0]").value("CZE"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findRoutes_shouldReturnPerPairResults_whenBatchIsValid() throws Exception {
+
+        when(batchRoutingService.findRoutes(
+            List.of(new RoutePair("CZE", "ITA"), new RoutePair("CZE", "AUS"))))
+            .thenReturn(List.of(
+                RouteResult.found("CZE", "ITA", List.of("CZE", "AUT", "ITA")),
+                RouteResult.failed("CZE", "AUS", new RouteNotFoundException("CZE", "AUS"))));
+
+        mockMvc.perform(post(RouteEndpoints.POST_BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"pairs": [
+                      {"origin": "cze", "destination": "ita"},
+                      {"origin": "CZE", "destination": "AUS"}]}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results.length()").value(2))
+            .andExpect(jsonPath("$.results[0].route.length()").value(3))
+            .andExpect(jsonPath("$.results[0].error").doesNotExist())
+            .andExpect(jsonPath("$.results[1].route").doesNotExist())
+            .andExpect(jsonPath("$.results[1].error").isString());
+    }
+
+    @Test
+    void findRoutes_shouldReturnBadRequest_whenBatchIsEmpty() throws Exception {
+
+        mockMvc.perform(post(RouteEndpoints.POST_BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"pairs": []}
+                    """))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findRoutes_shouldReturnBadRequest_whenPairIsIncomplete() throws Exception {
+
+        mockMvc.perform(post(RouteEndpoints.POST_BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"pairs": [{"origin": "CZE"}]}
+                    """))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findRoutesFrom_shouldPassNormalizedFilters_whenDestinationsAndMaxHopsGiven() throws Exception {
+
+        when(batchRoutingService.findRoutesFrom("CZE", List.of("ITA", "AUT"), 3))
+            .thenReturn(List.of(
+                RouteResult.found("CZE", "ITA", List.of("CZE", "AUT", "ITA")),
+                RouteResult.found("CZE", "AUT", List.of("CZE", "AUT"))));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTES_FROM, "cze")
+                .param("destinations", "ita,aut")
+                .param("maxHops", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results.length()").value(2))
+            .andExpect(jsonPath("$.results[0].destination").value("ITA"));
+    }
+
+    @Test
+    void findRoutesFrom_shouldQueryAllDestinations_whenNoFilterGiven() throws Exception {
+
+        when(batchRoutingService.findRoutesFrom("CZE", List.of(), null))
+            .thenReturn(List.of(RouteResult.found("CZE", "AUT", List.of("CZE", "AUT"))));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTES_FROM, "CZE"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results[0].route.length()").value(2));
+    }
+
+    @Test
+    void findRoutesFrom_shouldReturnBadRequest_whenOriginDoesNotExist() throws Exception {
+
+        when(batchRoutingService.findRoutesFrom("XXX", List.of(), null))
+            .thenThrow(new CountryNotFoundException("XXX"));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTES_FROM, "XXX"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamRoutesFrom_shouldWriteOneJsonLinePerRoute_whenNdjsonAccepted() throws Exception {
+
+        when(batchRoutingService.streamRoutesFrom("CZE", List.of(), null))
+            .thenReturn(Stream.of(
+                RouteResult.found("CZE", "AUT", List.of("CZE", "AUT")),
+                RouteResult.found("CZE", "ITA", List.of("CZE", "AUT", "ITA"))));
+
+        var result = mockMvc.perform(get(RouteEndpoints.GET_ROUTES_FROM, "CZE")
+                .accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(content().string("""
+                {"origin":"CZE","destination":"AUT","route":["CZE","AUT"]}
+                {"origin":"CZE","destination":"ITA","route":["CZE","AUT","ITA"]}
+                """));
+    }
+
+    @Test
+    void streamRoutesFrom_shouldReturnBadRequest_whenOriginDoesNotExist() throws Exception {
+
+        when(batchRoutingService.streamRoutesFrom("XXX", List.of(), null))
+            .thenThrow(new CountryNotFoundException("XXX"));
+
+        mockMvc.perform(get(RouteEndpoints.GET_ROUTES_FROM, "XXX").accept("application/x-ndjson"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamRoutes_shouldWriteOneJsonLinePerPair_whenNdjsonAccepted() throws Exception {
+
+        when(batchRoutingService.streamRoutes(List.of(new RoutePair("CZE", "AUS"))))
+            .thenReturn(Stream.of(
+                RouteResult.failed("CZE", "AUS", new RouteNotFoundException("CZE", "AUS"))));
+
+        var result = mockMvc.perform(post(RouteEndpoints.POST_BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept("application/x-ndjson")
+                .content("""
+                    {"pairs": [{"origin": "cze", "destination": "aus"}]}
+                    """))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("""
+                {"origin":"CZE","destination":"AUS","error":"No land route found from 'CZE' to 'AUS'"}
+                """));
+    }
+}
@@ -3,4 +3,8 @@ package com.daniel.routingservice.controller;
 public class RouteEndpoints {
 
     public static final String GET_ROUTE = "/routing/{origin}/{destination}";
+    public static final String GET_ALTERNATIVES = "/routing/{origin}/{destination}/alternatives";
+    public static final String GET_DISTANCE = "/routing/{origin}/{destination}/distance";
+    public static final String GET_ROUTES_FROM = "/routing/{origin}";
+    public static final String POST_BATCH = "/routing/batch";
 }
\ No newline at end of file
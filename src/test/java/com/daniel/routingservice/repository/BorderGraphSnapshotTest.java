@@ -0,0 +1,84 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BorderGraphSnapshotTest {
+
+    private static final long SOURCE_CHECKSUM = 42;
+
+    @TempDir
+    private Path directory;
+
+    private BorderGraph borderGraph;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() {
+
+        borderGraph = BorderGraph.of(
+            InMemoryCountryRepository.fromClasspath("/data/countries.json").countries());
+        snapshot = directory.resolve("countries.graph");
+    }
+
+    @Test
+    void read_shouldReturnSameGraph_whenSnapshotWasWrittenForSameSource() throws IOException {
+
+        BorderGraphSnapshot.write(snapshot, borderGraph, SOURCE_CHECKSUM);
+
+        var read = BorderGraphSnapshot.read(snapshot, SOURCE_CHECKSUM);
+
+        assertThat(read).hasValueSatisfying(graph -> {
+            assertThat(graph.size()).isEqualTo(borderGraph.size());
+            assertThat(graph.offsets()).isEqualTo(borderGraph.offsets());
+            assertThat(graph.neighbours()).isEqualTo(borderGraph.neighbours());
+            assertThat(graph.edgeLengths()).isEqualTo(borderGraph.edgeLengths());
+            assertThat(graph.componentCount()).isEqualTo(borderGraph.componentCount());
+            assertThat(graph.toBordersByCountry()).isEqualTo(borderGraph.toBordersByCountry());
+        });
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenSourceChanged() throws IOException {
+
+        BorderGraphSnapshot.write(snapshot, borderGraph, SOURCE_CHECKSUM);
+
+        assertThat(BorderGraphSnapshot.read(snapshot, SOURCE_CHECKSUM + 1)).isEmpty();
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenSnapshotIsCorrupted() throws IOException {
+
+        BorderGraphSnapshot.write(snapshot, borderGraph, SOURCE_CHECKSUM);
+        var bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        assertThat(BorderGraphSnapshot.read(snapshot, SOURCE_CHECKSUM)).isEmpty();
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenSnapshotIsTruncated() throws IOException {
+
+        BorderGraphSnapshot.write(snapshot, borderGraph, SOURCE_CHECKSUM);
+        var bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, 10));
+
+        assertThat(BorderGraphSnapshot.read(snapshot, SOURCE_CHECKSUM)).isEmpty();
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenSnapshotDoesNotExist() throws IOException {
+
+        assertThat(BorderGraphSnapshot.read(snapshot, SOURCE_CHECKSUM)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountryDataParserTest {
+
+    private final CountryDataParser countryDataParser = new CountryDataParser(
+        new ObjectMapper().getFactory());
+
+    @Test
+    void parse_shouldBuildSameGraphAsDatabind_whenParsingCountryData() throws IOException {
+
+        var source = getClass().getResourceAsStream("/data/countries.json").readAllBytes();
+
+        var borderGraph = countryDataParser.parse(source);
+
+        var expected = BorderGraph.of(
+            InMemoryCountryRepository.fromClasspath("/data/countries.json").countries());
+        assertThat(borderGraph.size()).isEqualTo(expected.size());
+        assertThat(borderGraph.offsets()).isEqualTo(expected.offsets());
+        assertThat(borderGraph.neighbours()).isEqualTo(expected.neighbours());
+        assertThat(borderGraph.toBordersByCountry()).isEqualTo(expected.toBordersByCountry());
+    }
+
+    @Test
+    void parse_shouldSkipOtherFields_whenCountryHasNestedData() throws IOException {
+
+        var borderGraph = parse("""
+            [
+              {"name": {"common": "Czechia", "native": {"ces": {"common": "Česko"}}}, "cca3": "CZE",
+               "latlng": [49.75, 15.5], "borders": ["AUT"],
+               "translations": {"deu": {"common": "Tschechien"}}},
+              {"borders": ["CZE"], "cca3": "AUT", "independent": true, "tld": [".at"]}
+            ]
+            """);
+
+        assertThat(borderGraph.toBordersByCountry())
+            .containsEntry("CZE", Set.of("AUT"))
+            .containsEntry("AUT", Set.of("CZE"))
+            .hasSize(2);
+        assertThat(borderGraph.latitude(borderGraph.indexOf("CZE"))).isEqualTo(49.75);
+        assertThat(borderGraph.longitude(borderGraph.indexOf("CZE"))).isEqualTo(15.5);
+        assertThat(borderGraph.hasLocation(borderGraph.indexOf("AUT"))).isFalse();
+    }
+
+    @Test
+    void parse_shouldIgnoreCountry_whenCca3IsMissing() throws IOException {
+
+        var borderGraph = parse("""
+            [{"cca3": "ISL", "borders": null}, {"borders": ["ISL"]}, {"cca3": "ISL", "borders": ["NOR"]}]
+            """);
+
+        assertThat(borderGraph.size()).isEqualTo(1);
+        assertThat(borderGraph.degree(borderGraph.indexOf("ISL"))).isZero();
+    }
+
+    @Test
+    void parse_shouldThrow_whenDataIsNotAnArrayOfCountries() {
+
+        assertThatThrownBy(() -> parse("{\"cca3\": \"CZE\"}")).isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> parse("[\"CZE\"]")).isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> parse("[{\"cca3\": \"CZE\", \"borders\": \"AUT\"}]"))
+            .isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> parse("[{\"cca3\": \"CZE\", \"borders\": ["))
+            .isInstanceOf(IOException.class);
+    }
+
+    private BorderGraph parse(String json) throws IOException {
+
+        return countryDataParser.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package com.daniel.routingservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CountryDataReloaderTest {
+
+    @Mock
+    private CountryRepositoryAdapter countryRepository;
+
+    private CountryDataReloader countryDataReloader;
+
+    @AfterEach
+    void tearDown() {
+
+        countryDataReloader.shutdown();
+    }
+
+    @Test
+    void reloadIfModified_shouldRetryOnNextPoll_whenReloadOfChangedFileFailed() throws IOException {
+
+        countryDataReloader = new CountryDataReloader(countryRepository, null);
+        when(countryRepository.dataLastModified()).thenReturn(2L);
+        when(countryRepository.reload())
+            .thenThrow(new IOException("Unexpected end of input"))
+            .thenReturn(2L);
+
+        countryDataReloader.reloadIfModified();
+        countryDataReloader.reloadIfModified();
+        countryDataReloader.reloadIfModified();
+
+        // Failed, succeeded on the unchanged file, then nothing left to do
+        verify(countryRepository, times(2)).reload();
+    }
+
+    @Test
+    void reloadIfModified_shouldKeepPolling_whenReloadThrowsRuntimeException() throws IOException {
+
+        countryDataReloader = new CountryDataReloader(countryRepository, Duration.ofMinutes(1));
+        when(countryRepository.dataLastModified()).thenReturn(1L, 2L);
+        when(countryRepository.reload())
+            .thenThrow(new IllegalArgumentException("Duplicate country code: CZE"))
+            .thenReturn(2L);
+        countryDataReloader.startWatching();
+
+        countryDataReloader.reloadIfModified();
+        countryDataReloader.reloadIfModified();
+
+        verify(countryRepository, times(2)).reload();
+    }
+}
@@ -1,9 +1,13 @@
 package com.daniel.routingservice.repository;
 
 import com.daniel.routingservice.IntegrationTest;
+import com.daniel.routingservice.model.BorderGraph;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class CountryRepositoryAdapterIntegrationTest extends IntegrationTest {
@@ -86,4 +90,73 @@ class CountryRepositoryAdapterIntegrationTest extends IntegrationTest {
         assertThat(country.get().cca3()).isEqualTo(cca3);
         assertThat(country.get().borders()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBorderGraph_shouldIndexCzechRepublicNeighbours_whenDataLoaded() {
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var czechRepublic = borderGraph.indexOf("CZE");
+
+        assertThat(czechRepublic).isNotEqualTo(BorderGraph.NOT_FOUND);
+        assertThat(neighbourCodes(borderGraph, czechRepublic))
+            .containsExactlyInAnyOrder("AUT", "DEU", "POL", "SVK");
+    }
+
+    @Test
+    void getBorderGraph_shouldMatchBordersByCountry_whenDataLoaded() {
+
+        var borderGraph = countryRepository.getBorderGraph();
+        var bordersByCountry = countryRepository.getBordersByCountry();
+
+        assertThat(borderGraph.size()).isEqualTo(bordersByCountry.size());
+        bordersByCountry.forEach((cca3, borders) ->
+            assertThat(neighbourCodes(borderGraph, borderGraph.indexOf(cca3)))
+                .containsExactlyElementsOf(borders));
+    }
+
+    @Test
+    void getBorderGraph_shouldReturnNotFound_whenCountryDoesNotExist() {
+
+        assertThat(countryRepository.getBorderGraph().indexOf("XXX")).isEqualTo(BorderGraph.NOT_FOUND);
+    }
+
+    @Test
+    void findComponentId_shouldGroupConnectedCountries_whenDataLoaded() {
+
+        var czechRepublic = countryRepository.findComponentId("CZE");
+
+        assertThat(czechRepublic).isPresent();
+        assertThat(countryRepository.findComponentId("CHN")).hasValue(czechRepublic.getAsInt());
+        assertThat(countryRepository.findComponentId("ZAF")).hasValue(czechRepublic.getAsInt());
+        assertThat(countryRepository.findComponentId("USA").getAsInt())
+            .isNotEqualTo(czechRepublic.getAsInt());
+    }
+
+    @Test
+    void findComponentId_shouldGiveIslandOwnComponent_whenCountryHasNoBorders() {
+
+        var iceland = countryRepository.findComponentId("ISL");
+
+        assertThat(iceland).isPresent();
+        assertThat(countryRepository.getBordersByCountry().keySet())
+            .filteredOn(cca3 -> !cca3.equals("ISL"))
+            .allSatisfy(cca3 ->
+                assertThat(countryRepository.findComponentId(cca3).getAsInt())
+                    .isNotEqualTo(iceland.getAsInt()));
+    }
+
+    @Test
+    void findComponentId_shouldReturnEmpty_whenCountryDoesNotExist() {
+
+        assertThat(countryRepository.findComponentId("XXX")).isEmpty();
+    }
+
+    private static List<String> neighbourCodes(BorderGraph borderGraph, int index) {
+
+        var codes = new ArrayList<String>();
+        for (var edge = borderGraph.offsets()[index]; edge < borderGraph.offsets()[index + 1]; edge++) {
+            codes.add(borderGraph.codeAt(borderGraph.neighbours()[edge]));
+        }
+        return codes;
+    }
+}
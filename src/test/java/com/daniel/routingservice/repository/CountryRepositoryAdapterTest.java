@@ -0,0 +1,254 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.service.TestEngines;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CountryRepositoryAdapterTest {
+
+    private static final String CZE_AUT_ITA = """
+        [
+          {"cca3": "CZE", "borders": ["AUT"]},
+          {"cca3": "AUT", "borders": ["CZE", "ITA"]},
+          {"cca3": "ITA", "borders": ["AUT"]}
+        ]
+        """;
+    private static final String CZE_DEU_AUT_ITA = """
+        [
+          {"cca3": "CZE", "borders": ["DEU"]},
+          {"cca3": "DEU", "borders": ["CZE", "AUT"]},
+          {"cca3": "AUT", "borders": ["DEU", "ITA"]},
+          {"cca3": "ITA", "borders": ["AUT"]}
+        ]
+        """;
+
+    @TempDir
+    private Path dataDirectory;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private Path dataFile;
+    private CountryRepositoryAdapter countryRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        dataFile = dataDirectory.resolve("countries.json");
+        Files.writeString(dataFile, CZE_AUT_ITA);
+        countryRepository = new CountryRepositoryAdapter(new ObjectMapper(), new DefaultResourceLoader(),
+            dataFile.toUri().toString(), "", "", "heap", eventPublisher);
+        countryRepository.initialize();
+    }
+
+    @Test
+    void reload_shouldSwapInNewSnapshot_whenDataFileChanged() throws IOException {
+
+        var previousGraph = countryRepository.getBorderGraph();
+        Files.writeString(dataFile, CZE_DEU_AUT_ITA);
+
+        var version = countryRepository.reload();
+
+        assertThat(version).isEqualTo(2);
+        assertThat(countryRepository.version()).isEqualTo(2);
+        assertThat(countryRepository.getBorderGraph()).isNotSameAs(previousGraph);
+        assertThat(countryRepository.findByCca3("DEU")).isPresent();
+        assertThat(countryRepository.getBordersByCountry().get("CZE")).containsExactly("DEU");
+        verify(eventPublisher).publishEvent(any(CountryDataReloadedEvent.class));
+    }
+
+    @Test
+    void initialize_shouldAddEdgeLayers_whenLayersFileConfigured() throws IOException {
+
+        var layersFile = dataDirectory.resolve("layers.json");
+        Files.writeString(layersFile, """
+            {"Ferry": [["CZE", "ITA"], ["ITA", "XXX"]], "tunnel": []}
+            """);
+        var repository = new CountryRepositoryAdapter(new ObjectMapper(), new DefaultResourceLoader(),
+            dataFile.toUri().toString(), "", layersFile.toUri().toString(), "heap", eventPublisher);
+
+        repository.initialize();
+
+        var borderGraph = repository.getBorderGraph();
+        assertThat(borderGraph.layerCount()).isEqualTo(2);
+        var ferry = borderGraph.layer(borderGraph.layerIndexOf("ferry"));
+        assertThat(ferry.edgeCount()).isEqualTo(2);
+        assertThat(ferry.neighbours()[ferry.offsets()[borderGraph.indexOf("CZE")]])
+            .isEqualTo(borderGraph.indexOf("ITA"));
+        assertThat(borderGraph.layer(borderGraph.layerIndexOf("tunnel")).edgeCount()).isZero();
+        assertThat(repository.getBordersByCountry().get("CZE")).containsExactly("AUT");
+    }
+
+    @Test
+    void initialize_shouldFail_whenLayersFileIsInvalid() throws IOException {
+
+        var layersFile = dataDirectory.resolve("layers.json");
+        Files.writeString(layersFile, """
+            {"ferry": [["CZE"]]}
+            """);
+        var repository = new CountryRepositoryAdapter(new ObjectMapper(), new DefaultResourceLoader(),
+            dataFile.toUri().toString(), "", layersFile.toUri().toString(), "heap", eventPublisher);
+
+        assertThatThrownBy(repository::initialize)
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("ferry");
+    }
+
+    @Test
+    void reload_shouldKeepCurrentSnapshot_whenDataFileIsInvalid() throws IOException {
+
+        var previousGraph = countryRepository.getBorderGraph();
+        Files.writeString(dataFile, "[{\"cca3\": ");
+
+        var reloader = new CountryDataReloader(countryRepository, null);
+        var reload = reloader.reload();
+
+        assertThat(reload).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(countryRepository.getBorderGraph()).isSameAs(previousGraph);
+        assertThat(countryRepository.version()).isEqualTo(1);
+        reloader.shutdown();
+    }
+
+    @Test
+    void findRoute_shouldAlwaysSeeCompleteSnapshot_whileReloadsAreRunning() throws Exception {
+
+        var routingService = TestEngines.bfs(countryRepository);
+        var routes = new ConcurrentLinkedQueue<List<String>>();
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var readers = Executors.newFixedThreadPool(4);
+        var started = new CountDownLatch(4);
+        var stop = new AtomicBoolean();
+
+        for (var reader = 0; reader < 4; reader++) {
+            readers.execute(() -> {
+                started.countDown();
+                while (!stop.get()) {
+                    try {
+                        routes.add(routingService.findRoute("CZE", "ITA").route());
+                    } catch (RuntimeException exception) {
+                        failures.add(exception);
+                    }
+                }
+            });
+        }
+
+        started.await();
+        for (var reload = 0; reload < 50; reload++) {
+            Files.writeString(dataFile, reload % 2 == 0 ? CZE_DEU_AUT_ITA : CZE_AUT_ITA);
+            countryRepository.reload();
+        }
+        stop.set(true);
+        readers.shutdown();
+        assertThat(readers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(failures).isEmpty();
+        assertThat(routes).isNotEmpty().allSatisfy(route -> assertThat(route).isIn(
+            List.of("CZE", "AUT", "ITA"),
+            List.of("CZE", "DEU", "AUT", "ITA")));
+    }
+
+    @Test
+    void initialize_shouldReadSnapshot_whenDataFileUnchangedSinceSnapshotWasWritten() throws IOException {
+
+        var snapshot = dataDirectory.resolve("countries.graph");
+        newRepository(snapshot).initialize();
+        var snapshotWritten = Files.getLastModifiedTime(snapshot);
+
+        var restarted = newRepository(snapshot);
+        restarted.initialize();
+
+        assertThat(Files.getLastModifiedTime(snapshot)).isEqualTo(snapshotWritten);
+        assertThat(restarted.getBordersByCountry()).isEqualTo(countryRepository.getBordersByCountry());
+        assertThat(restarted.findByCca3("AUT"))
+            .hasValueSatisfying(country -> assertThat(country.borders()).containsExactly("CZE", "ITA"));
+    }
+
+    @Test
+    void reload_shouldParseJsonAndRewriteSnapshot_whenSnapshotIsStale() throws IOException {
+
+        var snapshot = dataDirectory.resolve("countries.graph");
+        var repository = newRepository(snapshot);
+        repository.initialize();
+        Files.writeString(dataFile, CZE_DEU_AUT_ITA);
+
+        repository.reload();
+
+        assertThat(repository.getBordersByCountry().get("CZE")).containsExactly("DEU");
+        var restarted = newRepository(snapshot);
+        restarted.initialize();
+        assertThat(restarted.getBordersByCountry()).isEqualTo(repository.getBordersByCountry());
+    }
+
+    @Test
+    void initialize_shouldServeSameCountriesAsHeapStore_whenMappedStoreSelected() throws IOException {
+
+        Files.copy(Path.of("src/main/resources/data/countries.json"), dataFile,
+            StandardCopyOption.REPLACE_EXISTING);
+        var heap = newRepository(dataDirectory.resolve("heap.graph"), "heap");
+        var mapped = newRepository(dataDirectory.resolve("mapped.graph"), "mapped");
+        heap.initialize();
+        mapped.initialize();
+
+        assertThat(mapped.getBordersByCountry()).isEqualTo(heap.getBordersByCountry());
+        for (var cca3 : heap.getBordersByCountry().keySet()) {
+            assertThat(mapped.findByCca3(cca3)).isEqualTo(heap.findByCca3(cca3));
+        }
+        assertThat(mapped.findByCca3("XXX")).isEmpty();
+        assertThat(mapped.getBordersByCountry().get("XXX")).isNull();
+        assertThat(mapped.getBordersByCountry().get("CZE")).containsExactly("AUT", "DEU", "POL", "SVK");
+    }
+
+    @Test
+    void reload_shouldMapNewSnapshot_whenMappedStoreSelected() throws IOException {
+
+        var repository = newRepository(dataDirectory.resolve("countries.graph"), "mapped");
+        repository.initialize();
+        Files.writeString(dataFile, CZE_DEU_AUT_ITA);
+
+        repository.reload();
+
+        assertThat(repository.findByCca3("CZE"))
+            .hasValueSatisfying(country -> assertThat(country.borders()).containsExactly("DEU"));
+        assertThat(repository.getBordersByCountry()).containsOnlyKeys("CZE", "DEU", "AUT", "ITA");
+    }
+
+    @Test
+    void constructor_shouldReject_whenMappedStoreHasNoSnapshotPath() {
+
+        assertThatThrownBy(() -> new CountryRepositoryAdapter(
+                new ObjectMapper(), new DefaultResourceLoader(),
+                dataFile.toUri().toString(), "", "", "mapped", eventPublisher))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("snapshot-path");
+    }
+
+    private CountryRepositoryAdapter newRepository(Path snapshot) {
+
+        return newRepository(snapshot, "heap");
+    }
+
+    private CountryRepositoryAdapter newRepository(Path snapshot, String store) {
+
+        return new CountryRepositoryAdapter(new ObjectMapper(), new DefaultResourceLoader(),
+            dataFile.toUri().toString(), snapshot.toString(), "", store, eventPublisher);
+    }
+}
@@ -0,0 +1,80 @@
+package com.daniel.routingservice.repository;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Plain {@link CountryRepository} for tests that run many lookups, where a Mockito mock would record
+ * every call.
+ */
+public class InMemoryCountryRepository implements CountryRepository {
+
+    private final List<Country> countries;
+    private final Map<String, Country> countryByCca3;
+    private final BorderGraph borderGraph;
+    private final Map<String, Set<String>> bordersByCountry;
+
+    public InMemoryCountryRepository(List<Country> countries) {
+
+        this.countries = List.copyOf(countries);
+        this.countryByCca3 = countries.stream()
+            .collect(Collectors.toMap(Country::cca3, Function.identity()));
+        this.borderGraph = BorderGraph.of(countries);
+        this.bordersByCountry = borderGraph.toBordersByCountry();
+    }
+
+    public static InMemoryCountryRepository fromClasspath(String resource) {
+
+        try (var inputStream = InMemoryCountryRepository.class.getResourceAsStream(resource)) {
+            List<Country> countries = new ObjectMapper().readValue(inputStream, new TypeReference<>() {
+            });
+            return new InMemoryCountryRepository(countries);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    public List<Country> countries() {
+
+        return countries;
+    }
+
+    @Override
+    public Optional<Country> findByCca3(String cca3) {
+
+        return Optional.ofNullable(countryByCca3.get(cca3));
+    }
+
+    @Override
+    public Map<String, Set<String>> getBordersByCountry() {
+
+        return bordersByCountry;
+    }
+
+    @Override
+    public BorderGraph getBorderGraph() {
+
+        return borderGraph;
+    }
+
+    @Override
+    public OptionalInt findComponentId(String cca3) {
+
+        var index = borderGraph.indexOf(cca3);
+        return index != BorderGraph.NOT_FOUND
+            ? OptionalInt.of(borderGraph.componentOf(index))
+            : OptionalInt.empty();
+    }
+}
@@ -0,0 +1,143 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryRepository;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlternativeRoutingServiceTest {
+
+    // 3x3 grid, every cell bordering its horizontal and vertical neighbours
+    private static final List<Country> GRID = List.of(
+        new Country("A00", List.of("A01", "A10")),
+        new Country("A01", List.of("A00", "A02", "A11")),
+        new Country("A02", List.of("A01", "A12")),
+        new Country("A10", List.of("A00", "A11", "A20")),
+        new Country("A11", List.of("A01", "A10", "A12", "A21")),
+        new Country("A12", List.of("A02", "A11", "A22")),
+        new Country("A20", List.of("A10", "A21")),
+        new Country("A21", List.of("A11", "A20", "A22")),
+        new Country("A22", List.of("A12", "A21")));
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Test
+    void findRoutes_shouldMatchShortestSimplePaths_whenEnumeratingGrid() {
+
+        var borderGraph = BorderGraph.of(GRID);
+        when(countryRepository.getBorderGraph()).thenReturn(borderGraph);
+        var allPaths = allSimplePaths(borderGraph, "A00", "A22");
+
+        var routes = new AlternativeRoutingService(countryRepository).findRoutes("A00", "A22", 100);
+
+        assertThat(routes).hasSameSizeAs(allPaths).doesNotHaveDuplicates();
+        assertThat(routes).containsExactlyInAnyOrderElementsOf(allPaths);
+        assertThat(routes).isSortedAccordingTo(Comparator.comparingInt(List::size));
+    }
+
+    @Test
+    void findRoutes_shouldReturnOnlyShortestRoutes_whenLimitIsSmall() {
+
+        when(countryRepository.getBorderGraph()).thenReturn(BorderGraph.of(GRID));
+
+        var routes = new AlternativeRoutingService(countryRepository).findRoutes("A00", "A22", 6);
+
+        // There are exactly six 4-hop routes across the grid
+        assertThat(routes).hasSize(6).allSatisfy(route -> assertThat(route).hasSize(5));
+    }
+
+    @Test
+    void findRoutes_shouldStartWithBfsRoute_whenRoutingOnCountryData() {
+
+        var countryRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        var bfsRoutingService = TestEngines.bfs(countryRepository);
+        var bfsRoute = bfsRoutingService.findRoute("PRT", "CHN").route();
+
+        var routes = new AlternativeRoutingService(countryRepository).findRoutes("PRT", "CHN", 10);
+
+        assertThat(routes).hasSize(10).doesNotHaveDuplicates();
+        assertThat(routes.getFirst()).isEqualTo(bfsRoute);
+        assertThat(routes)
+            .allSatisfy(route -> assertThat(new LinkedHashSet<>(route)).hasSameSizeAs(route));
+        assertThat(routes).isSortedAccordingTo(Comparator.comparingInt(List::size));
+    }
+
+    @Test
+    void findRoutes_shouldReturnSingleCountry_whenOriginEqualsDestination() {
+
+        when(countryRepository.getBorderGraph()).thenReturn(BorderGraph.of(GRID));
+
+        var routes = new AlternativeRoutingService(countryRepository).findRoutes("A11", "A11", 3);
+
+        assertThat(routes).containsExactly(List.of("A11"));
+    }
+
+    @Test
+    void findRoutes_shouldThrowCountryNotFound_whenCountryUnknown() {
+
+        when(countryRepository.getBorderGraph()).thenReturn(BorderGraph.of(GRID));
+
+        assertThatThrownBy(
+            () -> new AlternativeRoutingService(countryRepository).findRoutes("A00", "XXX", 3))
+            .isInstanceOf(CountryNotFoundException.class);
+    }
+
+    @Test
+    void findRoutes_shouldThrowRouteNotFound_whenBorderIsOneSided() {
+
+        when(countryRepository.getBorderGraph()).thenReturn(BorderGraph.of(List.of(
+            new Country("IND", List.of()),
+            new Country("LKA", List.of("IND")))));
+
+        assertThatThrownBy(
+            () -> new AlternativeRoutingService(countryRepository).findRoutes("IND", "LKA", 3))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    private static List<List<String>> allSimplePaths(
+        BorderGraph borderGraph,
+        String origin,
+        String destination) {
+
+        var paths = new ArrayList<List<String>>();
+        var path = new ArrayList<String>();
+        path.add(origin);
+        collectPaths(
+            borderGraph, borderGraph.indexOf(origin), borderGraph.indexOf(destination), path, paths);
+        return paths;
+    }
+
+    private static void collectPaths(
+        BorderGraph borderGraph, int node, int destination, List<String> path, List<List<String>> paths) {
+
+        if (node == destination) {
+            paths.add(List.copyOf(path));
+            return;
+        }
+        for (var edge = borderGraph.offsets()[node]; edge < borderGraph.offsets()[node + 1]; edge++) {
+            var neighbour = borderGraph.codeAt(borderGraph.neighbours()[edge]);
+            if (!path.contains(neighbour)) {
+                path.add(neighbour);
+                collectPaths(borderGraph, borderGraph.neighbours()[edge], destination, path, paths);
+                path.removeLast();
+            }
+        }
+    }
+}
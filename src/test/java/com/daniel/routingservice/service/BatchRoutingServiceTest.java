@@ -0,0 +1,148 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.RoutePair;
+import com.daniel.routingservice.model.RouteResult;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchRoutingServiceTest {
+
+    private final InMemoryCountryRepository countryRepository = SampleCountries.repository();
+    private final BatchRoutingService batchRoutingService = new BatchRoutingService(
+        countryRepository, 1000);
+
+    @Test
+    void findRoutes_shouldReturnResultsInRequestOrder_whenOriginsAreInterleaved() {
+
+        var results = batchRoutingService.findRoutes(List.of(
+            new RoutePair("CZE", "ROU"),
+            new RoutePair("ITA", "AUT"),
+            new RoutePair("CZE", "AUT"),
+            new RoutePair("CZE", "CZE")));
+
+        assertThat(results).extracting(RouteResult::route)
+            .containsExactly(List.of("CZE", "AUT", "HUN", "ROU"),
+            List.of("ITA", "AUT"),
+            List.of("CZE", "AUT"),
+            List.of("CZE"));
+        assertThat(results).extracting(RouteResult::error).containsOnlyNulls();
+    }
+
+    @Test
+    void findRoutes_shouldReportErrorsPerPair_whenSomePairsAreInvalid() {
+
+        var results = batchRoutingService.findRoutes(List.of(
+            new RoutePair("XXX", "ITA"),
+            new RoutePair("CZE", "ZZZ"),
+            new RoutePair("CZE", "ISL"),
+            new RoutePair("CZE", "ITA")));
+
+        assertThat(results.get(0).error()).contains("XXX");
+        assertThat(results.get(1).error()).contains("ZZZ");
+        assertThat(results.get(2).error()).contains("CZE").contains("ISL");
+        assertThat(results.get(3).route()).containsExactly("CZE", "AUT", "ITA");
+        assertThat(results).extracting(RouteResult::origin).containsExactly("XXX", "CZE", "CZE", "CZE");
+    }
+
+    @Test
+    void findRoutes_shouldMatchBfsRoutes_whenBatchIsProcessedInParallel() {
+
+        var fullRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        var parallelBatchService = new BatchRoutingService(fullRepository, 1);
+        var bfsRoutingService = TestEngines.bfs(fullRepository);
+        var pairs = new ArrayList<RoutePair>();
+        for (var origin : fullRepository.countries()) {
+            for (var destination : fullRepository.countries()) {
+                pairs.add(new RoutePair(origin.cca3(), destination.cca3()));
+            }
+        }
+
+        var results = parallelBatchService.findRoutes(pairs);
+
+        assertThat(results).hasSameSizeAs(pairs);
+        for (var position = 0; position < pairs.size(); position++) {
+            var pair = pairs.get(position);
+            var result = results.get(position);
+            assertThat(result.origin()).isEqualTo(pair.origin());
+            assertThat(result.destination()).isEqualTo(pair.destination());
+            if (result.route() != null) {
+                assertThat(result.route())
+                    .isEqualTo(bfsRoutingService.findRoute(pair.origin(), pair.destination()).route());
+            } else {
+                assertThat(result.error()).startsWith("No land route found");
+            }
+        }
+    }
+
+    @Test
+    void findRoutesFrom_shouldReturnEveryReachableCountryByHopCount_whenNoFilterGiven() {
+
+        var results = batchRoutingService.findRoutesFrom("CZE", List.of(), null);
+
+        assertThat(results).extracting(RouteResult::destination)
+            .containsExactly("AUT", "ITA", "HUN", "SVN", "ROU");
+        assertThat(results).extracting(result -> result.route().size()).containsExactly(2, 3, 3, 4, 4);
+        assertThat(results).allSatisfy(result -> assertThat(result.route().getFirst()).isEqualTo("CZE"));
+    }
+
+    @Test
+    void findRoutesFrom_shouldStopAtMaxHops_whenLimitGiven() {
+
+        var results = batchRoutingService.findRoutesFrom("CZE", List.of(), 2);
+
+        assertThat(results).extracting(RouteResult::destination).containsExactly("AUT", "ITA", "HUN");
+    }
+
+    @Test
+    void findRoutesFrom_shouldReturnRequestedDestinationsOnly_whenFilterGiven() {
+
+        var results = batchRoutingService.findRoutesFrom("CZE", List.of("ROU", "ISL", "XXX"), null);
+
+        assertThat(results).extracting(RouteResult::destination).containsExactly("ROU", "ISL", "XXX");
+        assertThat(results.get(0).route()).containsExactly("CZE", "AUT", "HUN", "ROU");
+        assertThat(results.get(1).error()).contains("ISL");
+        assertThat(results.get(2).error()).contains("XXX");
+    }
+
+    @Test
+    void findRoutesFrom_shouldReportHopLimitOnlyForReachableDestinations_whenFilterAndLimitGiven() {
+
+        var results = batchRoutingService.findRoutesFrom("CZE", List.of("HUN", "ROU", "ISL", "LKA"), 2);
+
+        assertThat(results.get(0).route()).containsExactly("CZE", "AUT", "HUN");
+        assertThat(results.get(1).error())
+            .isEqualTo("Route from 'CZE' to 'ROU' crosses more than 2 borders");
+        assertThat(results.get(2).error()).isEqualTo("No land route found from 'CZE' to 'ISL'");
+        // LKA lists ROU as a neighbour, but ROU does not list LKA, so there is no way in
+        assertThat(results.get(3).error()).isEqualTo("No land route found from 'CZE' to 'LKA'");
+    }
+
+    @Test
+    void findRoutesFrom_shouldThrowCountryNotFoundException_whenOriginDoesNotExist() {
+
+        assertThatThrownBy(() -> batchRoutingService.findRoutesFrom("XXX", List.of(), null))
+            .isInstanceOf(CountryNotFoundException.class)
+            .hasMessageContaining("XXX");
+    }
+
+    @Test
+    void streamRoutes_shouldReturnSameResultsAsFindRoutes_groupedByOrigin() {
+
+        var pairs = List.of(
+            new RoutePair("CZE", "ROU"),
+            new RoutePair("ITA", "AUT"),
+            new RoutePair("CZE", "XXX"));
+
+        var streamed = batchRoutingService.streamRoutes(pairs).toList();
+        var collected = batchRoutingService.findRoutes(pairs);
+
+        assertThat(streamed).containsExactly(collected.get(0), collected.get(2), collected.get(1));
+    }
+}
@@ -0,0 +1,170 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Checks the scratch-buffer BFS against the original path-copying BFS on the full country data set, and
+ * the precomputed route table built on several threads and the landmark-guided hop search against the
+ * BFS.
+ */
+class BfsRoutingServiceEquivalenceTest {
+
+    private static InMemoryCountryRepository countryRepository;
+    private static BfsRoutingService bfsRoutingService;
+
+    @BeforeAll
+    static void setUp() {
+
+        countryRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        bfsRoutingService = TestEngines.bfs(countryRepository);
+    }
+
+    @Test
+    void findRoute_shouldMatchReferenceBfs_forAllCountryPairs() {
+
+        var countries = countryRepository.countries();
+        var bordersByCountry = countryRepository.getBordersByCountry();
+        var comparedPairs = 0;
+
+        for (var origin : countries) {
+            for (var destination : countries) {
+                var expected = referenceShortestPath(bordersByCountry, origin.cca3(), destination.cca3());
+                var actual = new AtomicReference<List<String>>();
+                var thrown = catchThrowable(() ->
+                    actual.set(bfsRoutingService.findRoute(origin.cca3(), destination.cca3()).route()));
+
+                if (expected.isEmpty()) {
+                    assertThat(thrown).isInstanceOf(RouteNotFoundException.class);
+                } else {
+                    assertThat(thrown).isNull();
+                    assertThat(actual.get())
+                        .as("%s -> %s", origin.cca3(), destination.cca3())
+                        .isEqualTo(expected.get());
+                }
+                comparedPairs++;
+            }
+        }
+
+        assertThat(comparedPairs).isEqualTo(countries.size() * countries.size());
+    }
+
+    @Test
+    void findRoute_shouldMatchBfsRouteLength_whenRouteTableBuiltInParallel() {
+
+        var precomputedRoutingService = TestEngines.precomputed(countryRepository);
+        try (var pool = new ForkJoinPool(4)) {
+            precomputedRoutingService.build(countryRepository.getBorderGraph(), pool);
+        }
+
+        for (var origin : countryRepository.countries()) {
+            for (var destination : countryRepository.countries()) {
+                var expected = catchThrowable(
+                    () -> bfsRoutingService.findRoute(origin.cca3(), destination.cca3()));
+                var actual = new AtomicReference<List<String>>();
+                var thrown = catchThrowable(() -> actual.set(
+                    precomputedRoutingService.findRoute(origin.cca3(), destination.cca3()).route()));
+
+                if (expected != null) {
+                    assertThat(thrown).isInstanceOf(RouteNotFoundException.class);
+                } else {
+                    assertThat(actual.get())
+                        .as("%s -> %s", origin.cca3(), destination.cca3())
+                        .hasSameSizeAs(
+                            bfsRoutingService.findRoute(origin.cca3(), destination.cca3()).route());
+                }
+            }
+        }
+    }
+
+    @Test
+    void findRoute_shouldMatchBfsRouteLength_whenLandmarksGuideHopSearch() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 0, 8);
+        distanceOracle.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+        assertThat(distanceOracle.hopLandmarksFor(countryRepository.getBorderGraph())).isNotNull();
+        var guidedRoutingService = new BfsRoutingService(
+            countryRepository, TestEngines.routingMetrics(), distanceOracle);
+        var bordersByCountry = countryRepository.getBordersByCountry();
+
+        for (var origin : countryRepository.countries()) {
+            for (var destination : countryRepository.countries()) {
+                var expected = catchThrowable(
+                    () -> bfsRoutingService.findRoute(origin.cca3(), destination.cca3()));
+                var actual = new AtomicReference<List<String>>();
+                var thrown = catchThrowable(() -> actual.set(
+                    guidedRoutingService.findRoute(origin.cca3(), destination.cca3()).route()));
+
+                if (expected != null) {
+                    assertThat(thrown).isInstanceOf(RouteNotFoundException.class);
+                    continue;
+                }
+                var route = actual.get();
+                assertThat(route)
+                    .as("%s -> %s", origin.cca3(), destination.cca3())
+                    .hasSameSizeAs(bfsRoutingService.findRoute(origin.cca3(), destination.cca3()).route())
+                    .startsWith(origin.cca3())
+                    .endsWith(destination.cca3());
+                for (var position = 1; position < route.size(); position++) {
+                    assertThat(bordersByCountry.get(route.get(position - 1)))
+                        .contains(route.get(position));
+                }
+            }
+        }
+    }
+
+    // The path-copying BFS that BfsRoutingService used before it switched to scratch buffers
+    private static Optional<List<String>> referenceShortestPath(
+        Map<String, Set<String>> borderGraph,
+        String origin,
+        String destination) {
+
+        if (origin.equals(destination)) {
+            return Optional.of(List.of(origin));
+        }
+
+        var queue = new ArrayDeque<List<String>>();
+        var visited = new HashSet<String>();
+
+        queue.add(List.of(origin));
+        visited.add(origin);
+
+        while (!queue.isEmpty()) {
+            var currentPath = queue.poll();
+            var currentCountry = currentPath.getLast();
+
+            for (var neighbour : borderGraph.getOrDefault(currentCountry, Set.of())) {
+                if (visited.contains(neighbour)) {
+                    continue;
+                }
+
+                var newPath = new ArrayList<>(currentPath);
+                newPath.add(neighbour);
+
+                if (neighbour.equals(destination)) {
+                    return Optional.of(List.copyOf(newPath));
+                }
+
+                visited.add(neighbour);
+                queue.add(newPath);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
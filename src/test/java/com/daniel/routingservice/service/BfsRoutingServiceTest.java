@@ -1,16 +1,23 @@
 package com.daniel.routingservice.service;
 
+import com.daniel.routingservice.model.BorderGraph;
 import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
 import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.LayerNotFoundException;
 import com.daniel.routingservice.model.exception.RouteNotFoundException;
 import com.daniel.routingservice.repository.CountryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -25,6 +32,11 @@ class BfsRoutingServiceTest {
 
     @Mock
     private CountryRepository countryRepository;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private RoutingMetrics routingMetrics = new RoutingMetrics(meterRegistry, 1);
+    @Mock
+    private DistanceOracle distanceOracle;
     @InjectMocks
     private BfsRoutingService bfsRoutingService;
 
@@ -42,7 +54,10 @@ class BfsRoutingServiceTest {
             "ISL", Set.of()
         );
 
-        lenient().when(countryRepository.getBordersByCountry()).thenReturn(bordersByCountry);
+        var countries = bordersByCountry.entrySet().stream()
+            .map(entry -> new Country(entry.getKey(), List.copyOf(entry.getValue())))
+            .toList();
+        lenient().when(countryRepository.getBorderGraph()).thenReturn(BorderGraph.of(countries));
     }
 
     @Test
@@ -171,6 +186,135 @@ class BfsRoutingServiceTest {
             .hasMessageContaining(destination);
     }
 
+    @Test
+    void findRoute_shouldGoAround_whenCountryIsAvoided() {
+
+        mockCountry("AUT");
+        mockCountry("SVN");
+        mockCountry("ITA");
+
+        var result = bfsRoutingService.findRoute(
+            "AUT", "SVN", RouteMetric.HOPS, new RouteConstraints(List.of("ITA"), List.of()));
+
+        assertThat(result.route()).containsExactly("AUT", "HUN", "SVN");
+    }
+
+    @Test
+    void findRoute_shouldThrowRouteNotFoundException_whenOnlyRouteIsAvoided() {
+
+        mockCountry("CZE");
+        mockCountry("ITA");
+        mockCountry("AUT");
+
+        assertThatThrownBy(() -> bfsRoutingService.findRoute(
+            "CZE", "ITA", RouteMetric.HOPS, new RouteConstraints(List.of("AUT"), List.of())))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    @Test
+    void findRoute_shouldChainSegments_whenViaCountriesGiven() {
+
+        mockCountry("CZE");
+        mockCountry("ROU");
+        mockCountry("ITA");
+
+        var result = bfsRoutingService.findRoute(
+            "CZE", "ROU", RouteMetric.HOPS, new RouteConstraints(List.of(), List.of("ITA")));
+
+        assertThat(result.route()).hasSize(6).startsWith("CZE", "AUT", "ITA").endsWith("HUN", "ROU");
+    }
+
+    @Test
+    void findRoute_shouldThrowCountryNotFoundException_whenViaCountryDoesNotExist() {
+
+        mockCountry("CZE");
+        mockCountry("ITA");
+        when(countryRepository.findByCca3("XXX")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> bfsRoutingService.findRoute(
+            "CZE", "ITA", RouteMetric.HOPS, new RouteConstraints(List.of(), List.of("XXX"))))
+            .isInstanceOf(CountryNotFoundException.class);
+    }
+
+    @Test
+    void findRoute_shouldCrossLayerLink_whenLayerRequested() {
+
+        var landGraph = countryRepository.getBorderGraph();
+        when(countryRepository.getBorderGraph()).thenReturn(landGraph.withLayers(Map.of(
+            "ferry", List.of(List.of("ROU", "ISL")),
+            "tunnel", List.of(List.of("CZE", "ITA")))));
+        mockCountry("CZE");
+        mockCountry("ISL");
+
+        var ferry = new RouteConstraints(List.of(), List.of(), List.of("ferry"));
+        var bothLayers = new RouteConstraints(List.of(), List.of(), List.of("tunnel", "ferry"));
+        var byFerry = bfsRoutingService.findRoute("CZE", "ISL", RouteMetric.HOPS, ferry);
+        var byFerryAndTunnel = bfsRoutingService.findRoute("ISL", "CZE", RouteMetric.HOPS, bothLayers);
+
+        assertThat(byFerry.route()).containsExactly("CZE", "AUT", "HUN", "ROU", "ISL");
+        assertThat(byFerryAndTunnel.route()).containsExactly("ISL", "ROU", "HUN", "AUT", "CZE");
+        assertThatThrownBy(() -> bfsRoutingService.findRoute("CZE", "ISL"))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    @Test
+    void findRoute_shouldThrowLayerNotFoundException_whenLayerDoesNotExist() {
+
+        mockCountry("CZE");
+        mockCountry("ITA");
+
+        assertThatThrownBy(() -> bfsRoutingService.findRoute(
+            "CZE", "ITA", RouteMetric.HOPS, new RouteConstraints(List.of(), List.of(), List.of("ferry"))))
+            .isInstanceOf(LayerNotFoundException.class)
+            .hasMessage("Layer not found: 'ferry'");
+    }
+
+    @Test
+    void findRoute_shouldRecordSearch_whenRouteFound() {
+
+        mockCountry("CZE");
+        mockCountry("ITA");
+
+        bfsRoutingService.findRoute("CZE", "ITA");
+
+        assertThat(
+            meterRegistry.get("routing.route").tags("metric", "hops", "outcome", "found").timer().count())
+            .isEqualTo(1);
+        assertThat(
+            meterRegistry.get("routing.route.hops").tag("metric", "hops").functionCounter().count())
+            .isEqualTo(2);
+        assertThat(
+            meterRegistry.get("routing.search.expanded").tag("metric", "hops").functionCounter().count())
+            .isPositive();
+    }
+
+    @Test
+    void findRoute_shouldCountOutcome_whenCountryRouteOrLayerNotFound() {
+
+        mockCountry("CZE");
+        mockCountry("ISL");
+        when(countryRepository.findByCca3("XXX")).thenReturn(Optional.empty());
+        var ferry = new RouteConstraints(List.of(), List.of(), List.of("ferry"));
+
+        assertThatThrownBy(() -> bfsRoutingService.findRoute("CZE", "ISL"))
+            .isInstanceOf(RouteNotFoundException.class);
+        assertThatThrownBy(() -> bfsRoutingService.findRoute("XXX", "CZE"))
+            .isInstanceOf(CountryNotFoundException.class);
+        assertThatThrownBy(() -> bfsRoutingService.findRoute("CZE", "ISL", RouteMetric.HOPS, ferry))
+            .isInstanceOf(LayerNotFoundException.class);
+
+        assertThat(requests("route_not_found")).isEqualTo(1);
+        assertThat(requests("country_not_found")).isEqualTo(1);
+        assertThat(requests("layer_not_found")).isEqualTo(1);
+        assertThat(requests("found")).isZero();
+    }
+
+    private double requests(String outcome) {
+
+        return meterRegistry.get("routing.route.requests").tags("metric", "hops", "outcome", outcome)
+            .functionCounter().count();
+    }
+
     private void mockCountry(String cca3) {
 
         var country = new Country(cca3, bordersByCountry.getOrDefault(cca3, Set.of()).stream().toList());
@@ -0,0 +1,147 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BidirectionalBfsRoutingServiceTest {
+
+    private final InMemoryCountryRepository countryRepository = SampleCountries.repository();
+    private final BidirectionalBfsRoutingService bidirectionalRoutingService =
+        TestEngines.bidirectional(countryRepository);
+
+    @Test
+    void findRoute_shouldReturnDirectRoute_whenCountriesShareBorder() {
+
+        var result = bidirectionalRoutingService.findRoute("CZE", "AUT");
+
+        assertThat(result.route()).containsExactly("CZE", "AUT");
+    }
+
+    @Test
+    void findRoute_shouldReturnLongerRoute_whenThreeHopsRequired() {
+
+        var result = bidirectionalRoutingService.findRoute("CZE", "ROU");
+
+        assertThat(result.route()).containsExactly("CZE", "AUT", "HUN", "ROU");
+    }
+
+    @Test
+    void findRoute_shouldReturnShortestPath_whenMultiplePathsExist() {
+
+        var result = bidirectionalRoutingService.findRoute("CZE", "SVN");
+
+        assertThat(result.route()).hasSize(4);
+        assertThat(result.route().getFirst()).isEqualTo("CZE");
+        assertThat(result.route().getLast()).isEqualTo("SVN");
+        assertThat(result.route()).contains("AUT");
+    }
+
+    @Test
+    void findRoute_shouldReturnSingleCountry_whenOriginEqualsDestination() {
+
+        var result = bidirectionalRoutingService.findRoute("CZE", "CZE");
+
+        assertThat(result.route()).containsExactly("CZE");
+    }
+
+    @Test
+    void findRoute_shouldFollowOneSidedBorder_onlyInItsDirection() {
+
+        assertThat(bidirectionalRoutingService.findRoute("LKA", "CZE").route())
+            .containsExactly("LKA", "ROU", "HUN", "AUT", "CZE");
+        assertThatThrownBy(() -> bidirectionalRoutingService.findRoute("CZE", "LKA"))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    @Test
+    void findRoute_shouldThrowCountryNotFoundException_whenDestinationDoesNotExist() {
+
+        assertThatThrownBy(() -> bidirectionalRoutingService.findRoute("CZE", "ZZZ"))
+            .isInstanceOf(CountryNotFoundException.class)
+            .hasMessageContaining("ZZZ");
+    }
+
+    @Test
+    void findRoute_shouldThrowRouteNotFoundException_whenNoLandRouteExists() {
+
+        assertThatThrownBy(() -> bidirectionalRoutingService.findRoute("CZE", "ISL"))
+            .isInstanceOf(RouteNotFoundException.class)
+            .hasMessageContaining("CZE")
+            .hasMessageContaining("ISL");
+    }
+
+    @Test
+    void findRoute_shouldMatchBfsRouteLength_forAllCountryPairs() {
+
+        var fullRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        var bidirectional = TestEngines.bidirectional(fullRepository);
+        var bfs = TestEngines.bfs(fullRepository);
+        var bordersByCountry = fullRepository.getBordersByCountry();
+
+        for (var origin : fullRepository.countries()) {
+            for (var destination : fullRepository.countries()) {
+                var expected = catchRoute(bfs, origin.cca3(), destination.cca3());
+                var actual = catchRoute(bidirectional, origin.cca3(), destination.cca3());
+
+                if (expected == null) {
+                    assertThat(actual).as("%s -> %s", origin.cca3(), destination.cca3()).isNull();
+                    continue;
+                }
+
+                assertThat(actual).as("%s -> %s", origin.cca3(), destination.cca3())
+                    .hasSameSizeAs(expected)
+                    .startsWith(origin.cca3())
+                    .endsWith(destination.cca3());
+                for (var hop = 1; hop < actual.size(); hop++) {
+                    assertThat(bordersByCountry.get(actual.get(hop - 1))).contains(actual.get(hop));
+                }
+            }
+        }
+    }
+
+    @Test
+    void findRoute_shouldMatchPlatformThreadResults_whenRunOnManyVirtualThreads() throws Exception {
+
+        var fullRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        var bidirectional = TestEngines.bidirectional(fullRepository);
+        var countries = fullRepository.countries();
+        var expected = countries.stream()
+            .map(destination -> catchRoute(bidirectional, "PRT", destination.cca3()))
+            .toList();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<List<String>>>();
+            for (var round = 0; round < 20; round++) {
+                for (var destination : countries) {
+                    futures.add(
+                        executor.submit(() -> catchRoute(bidirectional, "PRT", destination.cca3())));
+                }
+            }
+            for (var index = 0; index < futures.size(); index++) {
+                assertThat(futures.get(index).get()).isEqualTo(expected.get(index % countries.size()));
+            }
+        }
+    }
+
+    private static List<String> catchRoute(
+        RoutingService routingService,
+        String origin,
+        String destination) {
+
+        try {
+            return routingService.findRoute(origin, destination).route();
+        } catch (RouteNotFoundException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.RouteConstraints;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.RouteResponse;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.CountryDataReloadedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingRoutingServiceTest {
+
+    @Mock
+    private RoutingService routingEngine;
+
+    private final AsyncCache<CachingRoutingService.RouteKey, Object> cache = Caffeine.newBuilder()
+        .maximumSize(100)
+        .executor(Runnable::run)
+        .recordStats()
+        .buildAsync();
+
+    @Test
+    void findRoute_shouldCallEngineOnce_whenSamePairRequestedTwice() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        when(routingEngine.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
+
+        var first = routingService.findRoute("CZE", "ITA");
+        var second = routingService.findRoute("CZE", "ITA");
+
+        assertThat(second).isSameAs(first);
+        verify(routingEngine, times(1)).findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE);
+        assertThat(cache.synchronous().stats().hitCount()).isEqualTo(1);
+        assertThat(cache.synchronous().stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findRoute_shouldCacheRouteNotFound_whenNotFoundCachingEnabled() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        when(routingEngine.findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenThrow(new RouteNotFoundException("CZE", "USA"));
+
+        assertThatThrownBy(() -> routingService.findRoute("CZE", "USA"))
+            .isInstanceOf(RouteNotFoundException.class);
+        assertThatThrownBy(() -> routingService.findRoute("CZE", "USA"))
+            .isInstanceOf(RouteNotFoundException.class);
+
+        verify(routingEngine, times(1)).findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE);
+    }
+
+    @Test
+    void findRoute_shouldNotCacheRouteNotFound_whenNotFoundCachingDisabled() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, false);
+        when(routingEngine.findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenThrow(new RouteNotFoundException("CZE", "USA"));
+
+        assertThatThrownBy(() -> routingService.findRoute("CZE", "USA"))
+            .isInstanceOf(RouteNotFoundException.class);
+        assertThatThrownBy(() -> routingService.findRoute("CZE", "USA"))
+            .isInstanceOf(RouteNotFoundException.class);
+
+        verify(routingEngine, times(2)).findRoute("CZE", "USA", RouteMetric.HOPS, RouteConstraints.NONE);
+    }
+
+    @Test
+    void findRoute_shouldNotCacheCountryNotFound_whenCountryUnknown() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        when(routingEngine.findRoute("XXX", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenThrow(new CountryNotFoundException("XXX"));
+
+        assertThatThrownBy(() -> routingService.findRoute("XXX", "ITA"))
+            .isInstanceOf(CountryNotFoundException.class);
+        assertThatThrownBy(() -> routingService.findRoute("XXX", "ITA"))
+            .isInstanceOf(CountryNotFoundException.class);
+
+        verify(routingEngine, times(2)).findRoute("XXX", "ITA", RouteMetric.HOPS, RouteConstraints.NONE);
+        assertThat(cache.synchronous().estimatedSize()).isZero();
+    }
+
+    @Test
+    void findRoute_shouldEvictEntries_whenMaxSizeExceeded() {
+
+        var smallCache = Caffeine.newBuilder()
+            .maximumSize(1)
+            .executor(Runnable::run)
+            .recordStats()
+            .<CachingRoutingService.RouteKey, Object>buildAsync();
+        var routingService = new CachingRoutingService(routingEngine, smallCache, true);
+        when(routingEngine.findRoute("CZE", "AUT", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT")));
+        when(routingEngine.findRoute("CZE", "DEU", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "DEU")));
+
+        routingService.findRoute("CZE", "AUT");
+        routingService.findRoute("CZE", "DEU");
+        smallCache.synchronous().cleanUp();
+
+        assertThat(smallCache.synchronous().estimatedSize()).isEqualTo(1);
+        assertThat(smallCache.synchronous().stats().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findRoute_shouldCallEngineAgain_whenCountryDataReloaded() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        when(routingEngine.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
+
+        routingService.findRoute("CZE", "ITA");
+        routingService.onCountryDataReloaded(new CountryDataReloadedEvent(null, 2));
+        routingService.findRoute("CZE", "ITA");
+
+        verify(routingEngine, times(2)).findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE);
+    }
+
+    @Test
+    void findRoute_shouldCacheMetricsSeparately_whenSamePairRequestedByHopsAndDistance() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        when(routingEngine.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA")));
+        when(routingEngine.findRoute("CZE", "ITA", RouteMetric.DISTANCE, RouteConstraints.NONE))
+            .thenReturn(new RouteResponse(List.of("CZE", "AUT", "ITA"), 1020.5));
+
+        var byHops = routingService.findRoute("CZE", "ITA");
+        var byDistance = routingService.findRoute("CZE", "ITA", RouteMetric.DISTANCE);
+        routingService.findRoute("CZE", "ITA", RouteMetric.DISTANCE);
+
+        assertThat(byHops.distanceKm()).isNull();
+        assertThat(byDistance.distanceKm()).isEqualTo(1020.5);
+        verify(routingEngine, times(1))
+            .findRoute("CZE", "ITA", RouteMetric.DISTANCE, RouteConstraints.NONE);
+    }
+
+    @Test
+    void findRoute_shouldShareEntry_whenAvoidedCountriesListedInDifferentOrder() {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        var constraints = new RouteConstraints(List.of("AUT", "DEU"), List.of());
+        when(routingEngine.findRoute("CZE", "ITA", RouteMetric.HOPS, constraints))
+            .thenReturn(new RouteResponse(List.of("CZE", "SVK", "HUN", "SVN", "ITA")));
+
+        var first = routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, constraints);
+        var reordered = new RouteConstraints(List.of("DEU", "AUT", "DEU"), List.of());
+        var second = routingService.findRoute("CZE", "ITA", RouteMetric.HOPS, reordered);
+
+        assertThat(second).isSameAs(first);
+        verify(routingEngine, times(1)).findRoute("CZE", "ITA", RouteMetric.HOPS, constraints);
+    }
+
+    @Test
+    void findRoute_shouldSearchOnceWithoutHoldingCache_whenSameMissRequestedConcurrently()
+        throws Exception {
+
+        var routingService = new CachingRoutingService(routingEngine, cache, true);
+        var searching = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(routingEngine.findRoute("CZE", "ITA", RouteMetric.HOPS, RouteConstraints.NONE))
+            .thenAnswer(invocation -> {
+                searching.countDown();
+                release.await();
+                return new RouteResponse(List.of("CZE", "AUT", "ITA"));
+            });
+
+        var first = CompletableFuture.supplyAsync(() -> routingService.findRoute("CZE", "ITA"));
+        assertThat(searching.await(5, TimeUnit.SECONDS)).isTrue();
+        var second = CompletableFuture.supplyAsync(() -> routingService.findRoute("CZE", "ITA"));
+        // A hit on the pending entry: the second request now waits for the first one's search
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.synchronous().stats().hitCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Clearing the cache would wait for the search if it ran under the map lock
+        CompletableFuture.runAsync(
+            () -> routingService.onCountryDataReloaded(new CountryDataReloadedEvent(null, 2)))
+            .get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).route()).containsExactly("CZE", "AUT", "ITA");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get());
+        verify(routingEngine, times(1)).findRoute(any(), any(), any(), any());
+        // The search started before the reload does not put its result back
+        assertThat(cache.synchronous().estimatedSize()).isZero();
+    }
+}
@@ -0,0 +1,231 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks every answer of the oracle against BFS and A* on the full country data set.
+ */
+class DistanceOracleTest {
+
+    private static InMemoryCountryRepository countryRepository;
+    private static BorderGraph borderGraph;
+
+    @BeforeAll
+    static void setUp() {
+
+        countryRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        borderGraph = countryRepository.getBorderGraph();
+    }
+
+    @Test
+    void findDistance_shouldReturnExactHops_forAllCountryPairs_whenGraphIsSmall() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 4096, 0);
+        distanceOracle.build(borderGraph, ForkJoinPool.commonPool());
+
+        forAllPairs((origin, destination, expectedHops) -> {
+            var distance = distanceOracle.findDistance(origin, destination, RouteMetric.HOPS);
+
+            assertThat(distance.exact()).isTrue();
+            assertThat(distance.lowerBound()).isEqualTo(expectedHops);
+            assertThat(distance.upperBound()).isEqualTo(expectedHops);
+        }, distanceOracle, RouteMetric.HOPS);
+    }
+
+    @Test
+    void findDistance_shouldBracketHops_forAllCountryPairs_whenOnlyLandmarksAreBuilt() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 0, 8);
+        distanceOracle.build(borderGraph, ForkJoinPool.commonPool());
+        var exactPairs = new int[1];
+
+        forAllPairs((origin, destination, expectedHops) -> {
+            var distance = distanceOracle.findDistance(origin, destination, RouteMetric.HOPS);
+
+            assertThat(distance.lowerBound().intValue()).as("%s -> %s", origin, destination)
+                .isLessThanOrEqualTo(expectedHops);
+            assertThat(distance.upperBound().intValue()).as("%s -> %s", origin, destination)
+                .isGreaterThanOrEqualTo(expectedHops);
+            assertThat(distance.exact()).isEqualTo(distance.lowerBound().equals(distance.upperBound()));
+            if (distance.exact()) {
+                exactPairs[0]++;
+            }
+        }, distanceOracle, RouteMetric.HOPS);
+
+        assertThat(exactPairs[0]).isPositive();
+    }
+
+    @Test
+    void findDistance_shouldBracketKilometres_forAllCountryPairs() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 0, 8);
+        distanceOracle.build(borderGraph, ForkJoinPool.commonPool());
+
+        for (var origin = 0; origin < borderGraph.size(); origin++) {
+            for (var destination = 0; destination < borderGraph.size(); destination++) {
+                var route = DistanceSearch.search(borderGraph, origin, destination);
+                if (route == null || origin == destination) {
+                    continue;
+                }
+
+                var distance = distanceOracle.findDistance(
+                    borderGraph.codeAt(origin), borderGraph.codeAt(destination), RouteMetric.DISTANCE);
+
+                var description = borderGraph.codeAt(origin) + " -> " + borderGraph.codeAt(destination);
+                assertThat(distance.lowerBound().doubleValue()).as(description)
+                    .isLessThanOrEqualTo(route.distanceKm() + 1e-6);
+                assertThat(distance.upperBound().doubleValue()).as(description)
+                    .isGreaterThanOrEqualTo(route.distanceKm() - 1e-6);
+                if (distance.exact()) {
+                    assertThat(distance.upperBound().doubleValue())
+                        .isCloseTo(route.distanceKm(), within(1e-6));
+                }
+            }
+        }
+    }
+
+    @Test
+    void findDistance_shouldSearch_whenNothingWasBuiltYet() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 4096, 8);
+
+        var hops = distanceOracle.findDistance("PRT", "CHN", RouteMetric.HOPS);
+        var kilometres = distanceOracle.findDistance("PRT", "CHN", RouteMetric.DISTANCE);
+
+        assertThat(hops.exact()).isTrue();
+        assertThat(hops.lowerBound()).isEqualTo(6);
+        assertThat(kilometres.exact()).isTrue();
+        var route = DistanceSearch.search(
+            borderGraph, borderGraph.indexOf("PRT"), borderGraph.indexOf("CHN"));
+        assertThat(kilometres.lowerBound().doubleValue()).isCloseTo(route.distanceKm(), within(1e-9));
+        assertThat(distanceOracle.landmarksFor(borderGraph)).isNull();
+    }
+
+    @Test
+    void findDistance_shouldReturnZero_whenOriginEqualsDestination() {
+
+        var distance = new DistanceOracle(countryRepository, 4096, 8)
+            .findDistance("CZE", "CZE", RouteMetric.DISTANCE);
+
+        assertThat(distance.exact()).isTrue();
+        assertThat(distance.lowerBound()).isEqualTo(0.0);
+        assertThat(distance.upperBound()).isEqualTo(0.0);
+    }
+
+    @Test
+    void findDistance_shouldThrowCountryNotFound_whenCountryUnknown() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 4096, 8);
+
+        assertThatThrownBy(() -> distanceOracle.findDistance("CZE", "XXX", RouteMetric.HOPS))
+            .isInstanceOf(CountryNotFoundException.class);
+    }
+
+    @Test
+    void findDistance_shouldThrowRouteNotFound_whenBorderIsOneSided() {
+
+        var distanceOracle = new DistanceOracle(countryRepository, 4096, 8);
+        distanceOracle.build(borderGraph, ForkJoinPool.commonPool());
+
+        // LKA lists IND as a border, IND does not list LKA
+        assertThatThrownBy(() -> distanceOracle.findDistance("IND", "LKA", RouteMetric.HOPS))
+            .isInstanceOf(RouteNotFoundException.class);
+        assertThatThrownBy(() -> distanceOracle.findDistance("IND", "LKA", RouteMetric.DISTANCE))
+            .isInstanceOf(RouteNotFoundException.class);
+        assertThatThrownBy(() -> distanceOracle.findDistance("CZE", "USA", RouteMetric.HOPS))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    @Test
+    void hopLandmarksFor_shouldGuideHopSearch_onlyWhenGraphIsTooLargeForExactHopsAndBoundsAreTight() {
+
+        var chain = new ArrayList<Country>();
+        for (var index = 0; index < 100; index++) {
+            var borders = new ArrayList<String>();
+            if (index > 0) {
+                borders.add(code(index - 1));
+            }
+            if (index < 99) {
+                borders.add(code(index + 1));
+            }
+            chain.add(new Country(code(index), borders));
+        }
+        var chainRepository = new InMemoryCountryRepository(chain);
+        var chainGraph = chainRepository.getBorderGraph();
+        var exact = new DistanceOracle(chainRepository, 4096, 8);
+        var bounded = new DistanceOracle(chainRepository, 0, 8);
+        exact.build(chainGraph, ForkJoinPool.commonPool());
+        bounded.build(chainGraph, ForkJoinPool.commonPool());
+
+        // Every pair of leaves is two hops apart through the hub, which no landmark tells
+        var star = new ArrayList<Country>();
+        star.add(new Country("HUB", IntStream.range(0, 100).mapToObj(DistanceOracleTest::code).toList()));
+        IntStream.range(0, 100).forEach(index -> star.add(new Country(code(index), List.of("HUB"))));
+        var starRepository = new InMemoryCountryRepository(star);
+        var starOracle = new DistanceOracle(starRepository, 0, 8);
+        starOracle.build(starRepository.getBorderGraph(), ForkJoinPool.commonPool());
+
+        assertThat(exact.hopLandmarksFor(chainGraph)).isNull();
+        assertThat(bounded.hopLandmarksFor(chainGraph)).isNotNull();
+        assertThat(bounded.hopLandmarksFor(borderGraph)).isNull();
+        assertThat(starOracle.hopLandmarksFor(starRepository.getBorderGraph())).isNull();
+    }
+
+    @Test
+    void constructor_shouldReject_whenExactMaxCountriesDoesNotFitShort() {
+
+        assertThatThrownBy(() -> new DistanceOracle(countryRepository, Short.MAX_VALUE + 1, 8))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("exact-max-countries");
+    }
+
+    /**
+     * Calls {@code check} with the BFS hop count of every pair with a route and asserts that the oracle
+     * rejects the others.
+     */
+    private static void forAllPairs(PairCheck check, DistanceOracle distanceOracle, RouteMetric metric) {
+
+        var queue = new int[borderGraph.size()];
+        for (var origin = 0; origin < borderGraph.size(); origin++) {
+            var hops = Landmarks.hopsFrom(borderGraph, origin, queue);
+            for (var destination = 0; destination < borderGraph.size(); destination++) {
+                var originCode = borderGraph.codeAt(origin);
+                var destinationCode = borderGraph.codeAt(destination);
+                if (hops[destination] == Landmarks.UNREACHED) {
+                    assertThatThrownBy(
+                        () -> distanceOracle.findDistance(originCode, destinationCode, metric))
+                        .isInstanceOf(RouteNotFoundException.class);
+                } else {
+                    check.check(originCode, destinationCode, hops[destination]);
+                }
+            }
+        }
+    }
+
+    private static String code(int index) {
+
+        return "C%02d".formatted(index);
+    }
+
+    @FunctionalInterface
+    private interface PairCheck {
+
+        void check(String origin, String destination, int expectedHops);
+    }
+}
@@ -0,0 +1,258 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.model.EdgeLayer;
+import com.daniel.routingservice.model.RouteMetric;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks the A* distance search against a textbook O(n²) Dijkstra on the full country data set.
+ */
+class DistanceSearchTest {
+
+    private static InMemoryCountryRepository countryRepository;
+    private static BorderGraph borderGraph;
+    private static BfsRoutingService routingService;
+
+    @BeforeAll
+    static void setUp() {
+
+        countryRepository = InMemoryCountryRepository.fromClasspath("/data/countries.json");
+        borderGraph = countryRepository.getBorderGraph();
+        routingService = TestEngines.bfs(countryRepository);
+    }
+
+    @Test
+    void search_shouldFindShortestDistance_forAllCountryPairs() {
+
+        assertThat(borderGraph.hasAllLocations()).isTrue();
+
+        for (var origin = 0; origin < borderGraph.size(); origin++) {
+            var expected = referenceDistances(borderGraph, origin);
+            for (var destination = 0; destination < borderGraph.size(); destination++) {
+                var route = DistanceSearch.search(borderGraph, origin, destination);
+
+                if (Double.isInfinite(expected[destination])) {
+                    assertThat(route).isNull();
+                } else {
+                    assertThat(route).isNotNull();
+                    assertThat(route.distanceKm())
+                        .as("%s -> %s", borderGraph.codeAt(origin), borderGraph.codeAt(destination))
+                        .isCloseTo(expected[destination], within(1e-6));
+                    assertThat(routeLength(route.route())).isCloseTo(route.distanceKm(), within(1e-6));
+                }
+            }
+        }
+    }
+
+    @Test
+    void run_shouldFindShortestDistanceSettlingFewerNodes_whenGuidedByLandmarks() {
+
+        var landmarks = Landmarks.select(borderGraph, 8, ForkJoinPool.commonPool());
+        var settledWithLandmarks = 0L;
+        var settledWithoutLandmarks = 0L;
+
+        try (var search = DistanceSearch.acquire()) {
+            for (var origin = 0; origin < borderGraph.size(); origin++) {
+                var expected = referenceDistances(borderGraph, origin);
+                for (var destination = 0; destination < borderGraph.size(); destination++) {
+                    var route = search.run(
+                        borderGraph, origin, destination, null, new EdgeLayer[0], landmarks);
+
+                    if (Double.isInfinite(expected[destination])) {
+                        assertThat(route).isNull();
+                        continue;
+                    }
+                    assertThat(route.distanceKm())
+                        .as("%s -> %s", borderGraph.codeAt(origin), borderGraph.codeAt(destination))
+                        .isCloseTo(expected[destination], within(1e-6));
+                    settledWithLandmarks += search.settledNodes();
+                    search.run(borderGraph, origin, destination, null, new EdgeLayer[0]);
+                    settledWithoutLandmarks += search.settledNodes();
+                }
+            }
+        }
+        assertThat(settledWithLandmarks).isLessThan(settledWithoutLandmarks);
+    }
+
+    @Test
+    void findRoute_shouldReturnRouteAndDistance_whenDistanceMetricRequested() {
+
+        var route = routingService.findRoute("CZE", "ITA", RouteMetric.DISTANCE);
+
+        assertThat(route.route()).startsWith("CZE").endsWith("ITA");
+        assertThat(route.distanceKm()).isPositive().isCloseTo(routeLength(route.route()), within(1e-9));
+    }
+
+    @Test
+    void findRoute_shouldReturnZeroDistance_whenOriginEqualsDestination() {
+
+        var route = routingService.findRoute("CZE", "CZE", RouteMetric.DISTANCE);
+
+        assertThat(route.route()).containsExactly("CZE");
+        assertThat(route.distanceKm()).isZero();
+    }
+
+    @Test
+    void findRoute_shouldThrowRouteNotFound_whenBorderIsOneSided() {
+
+        // LKA lists IND as a border, IND does not list LKA
+        assertThatThrownBy(() -> routingService.findRoute("IND", "LKA", RouteMetric.DISTANCE))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    @Test
+    void search_shouldPreferShorterDetour_whenFewerHopsAreLonger() {
+
+        // A-B-D is two long hops, A-C-E-D three short ones
+        var graph = BorderGraph.of(List.of(
+            new Country("AAA", List.of("BBB", "CCC"), List.of(0.0, 0.0)),
+            new Country("BBB", List.of("AAA", "DDD"), List.of(10.0, 5.0)),
+            new Country("CCC", List.of("AAA", "EEE"), List.of(0.0, 1.0)),
+            new Country("EEE", List.of("CCC", "DDD"), List.of(0.0, 2.0)),
+            new Country("DDD", List.of("BBB", "EEE"), List.of(0.0, 3.0))));
+
+        var route = DistanceSearch.search(graph, graph.indexOf("AAA"), graph.indexOf("DDD"));
+
+        assertThat(route.route()).containsExactly("AAA", "CCC", "EEE", "DDD");
+        assertThat(route.distanceKm())
+            .isCloseTo(graph.distanceKm(graph.indexOf("AAA"), graph.indexOf("DDD")), within(1e-6));
+    }
+
+    @Test
+    void search_shouldTakeLongerRoute_whenShorterRouteIsAvoided() {
+
+        var graph = BorderGraph.of(List.of(
+            new Country("AAA", List.of("BBB", "CCC"), List.of(0.0, 0.0)),
+            new Country("BBB", List.of("AAA", "DDD"), List.of(10.0, 5.0)),
+            new Country("CCC", List.of("AAA", "EEE"), List.of(0.0, 1.0)),
+            new Country("EEE", List.of("CCC", "DDD"), List.of(0.0, 2.0)),
+            new Country("DDD", List.of("BBB", "EEE"), List.of(0.0, 3.0))));
+        var avoided = new BitSet();
+        avoided.set(graph.indexOf("EEE"));
+
+        var route = DistanceSearch.search(graph, graph.indexOf("AAA"), graph.indexOf("DDD"), avoided);
+
+        assertThat(route.route()).containsExactly("AAA", "BBB", "DDD");
+        assertThat(route.distanceKm()).isCloseTo(
+            graph.distanceKm(graph.indexOf("AAA"), graph.indexOf("BBB"))
+                + graph.distanceKm(graph.indexOf("BBB"), graph.indexOf("DDD")), within(1e-6));
+    }
+
+    @Test
+    void search_shouldFindShortestDistance_forAllCountryPairsOverAllLayers() throws IOException {
+
+        Map<String, List<List<String>>> linksByLayer;
+        try (var input = DistanceSearchTest.class.getResourceAsStream("/data/layers.json")) {
+            linksByLayer = new ObjectMapper().readValue(input,
+                new TypeReference<LinkedHashMap<String, List<List<String>>>>() {
+                });
+        }
+        var layered = borderGraph.withLayers(linksByLayer);
+        var layers = new EdgeLayer[layered.layerCount()];
+        for (var layer = 0; layer < layers.length; layer++) {
+            layers[layer] = layered.layer(layer);
+        }
+
+        try (var search = DistanceSearch.acquire()) {
+            for (var origin = 0; origin < layered.size(); origin++) {
+                var expected = referenceDistances(layered, origin, layers);
+                for (var destination = 0; destination < layered.size(); destination++) {
+                    var route = search.run(layered, origin, destination, null, layers);
+
+                    if (Double.isInfinite(expected[destination])) {
+                        assertThat(route).isNull();
+                    } else {
+                        assertThat(route.distanceKm())
+                            .as("%s -> %s", layered.codeAt(origin), layered.codeAt(destination))
+                            .isCloseTo(expected[destination], within(1e-6));
+                    }
+                }
+            }
+        }
+        assertThat(DistanceSearch.search(layered, layered.indexOf("GBR"), layered.indexOf("FRA")))
+            .isNull();
+    }
+
+    @Test
+    void search_shouldStillFindRoute_whenLocationsAreMissing() {
+
+        var graph = BorderGraph.of(List.of(
+            new Country("CZE", List.of("AUT")),
+            new Country("AUT", List.of("CZE", "ITA")),
+            new Country("ITA", List.of("AUT"))));
+
+        var route = DistanceSearch.search(graph, graph.indexOf("CZE"), graph.indexOf("ITA"));
+
+        assertThat(graph.hasAllLocations()).isFalse();
+        assertThat(route.route()).containsExactly("CZE", "AUT", "ITA");
+        assertThat(route.distanceKm()).isZero();
+    }
+
+    private static double[] referenceDistances(BorderGraph graph, int origin) {
+
+        return referenceDistances(graph, origin, new EdgeLayer[0]);
+    }
+
+    private static double[] referenceDistances(BorderGraph graph, int origin, EdgeLayer[] layers) {
+
+        var distances = new double[graph.size()];
+        var done = new boolean[graph.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[origin] = 0;
+
+        for (var round = 0; round < graph.size(); round++) {
+            var current = -1;
+            for (var node = 0; node < graph.size(); node++) {
+                if (!done[node] && (current == -1 || distances[node] < distances[current])) {
+                    current = node;
+                }
+            }
+            if (Double.isInfinite(distances[current])) {
+                break;
+            }
+            done[current] = true;
+            for (var edge = graph.offsets()[current]; edge < graph.offsets()[current + 1]; edge++) {
+                var neighbour = graph.neighbours()[edge];
+                distances[neighbour] = Math.min(
+                    distances[neighbour], distances[current] + graph.edgeLengths()[edge]);
+            }
+            for (var layer : layers) {
+                for (var edge = layer.offsets()[current]; edge < layer.offsets()[current + 1]; edge++) {
+                    var neighbour = layer.neighbours()[edge];
+                    distances[neighbour] = Math.min(
+                        distances[neighbour], distances[current] + layer.edgeLengths()[edge]);
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static double routeLength(List<String> route) {
+
+        var length = 0.0;
+        for (var position = 1; position < route.size(); position++) {
+            length += borderGraph.distanceKm(
+                borderGraph.indexOf(route.get(position - 1)), borderGraph.indexOf(route.get(position)));
+        }
+        return length;
+    }
+}
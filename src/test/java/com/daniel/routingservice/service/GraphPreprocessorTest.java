@@ -0,0 +1,196 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.BorderGraph;
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.repository.CountryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GraphPreprocessorTest {
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BorderGraph borderGraph = BorderGraph.of(List.of(
+        new Country("CZE", List.of("AUT")),
+        new Country("AUT", List.of("CZE"))));
+
+    private RecordingStage routeTable;
+    private RecordingStage landmarks;
+    private GraphPreprocessor graphPreprocessor;
+
+    @BeforeEach
+    void setUp() {
+
+        routeTable = new RecordingStage("route-table");
+        landmarks = new RecordingStage("landmarks");
+        graphPreprocessor = newPreprocessor(routeTable, landmarks);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        graphPreprocessor.shutdown();
+    }
+
+    @Test
+    void health_shouldBeOutOfService_whenNothingWasBuiltYet() {
+
+        var health = graphPreprocessor.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(health.getDetails()).containsEntry("stages", List.of("route-table", "landmarks"));
+    }
+
+    @Test
+    void submit_shouldBuildEveryStageOnTheParallelPool_whenGraphIsCurrent() {
+
+        when(countryRepository.getBorderGraph()).thenReturn(borderGraph);
+
+        graphPreprocessor.submit(borderGraph).join();
+
+        assertThat(routeTable.builtFor).containsExactly(borderGraph);
+        assertThat(landmarks.builtFor).containsExactly(borderGraph);
+        assertThat(routeTable.parallelism).isEqualTo(2);
+
+        var health = graphPreprocessor.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("parallelism", 2);
+        assertThat((Map<String, ?>) health.getDetails().get("stageMillis"))
+            .containsOnlyKeys("route-table", "landmarks");
+        assertThat(meterRegistry.get("routing.preprocessing").tag("stage", "landmarks").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void submit_shouldSkipRun_whenGraphWasReplacedMeanwhile() {
+
+        var reloadedGraph = BorderGraph.of(List.of(new Country("ISL", List.of())));
+        when(countryRepository.getBorderGraph()).thenReturn(reloadedGraph);
+
+        graphPreprocessor.submit(borderGraph).join();
+
+        assertThat(routeTable.builtFor).isEmpty();
+        assertThat(graphPreprocessor.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void submit_shouldBuildRemainingStagesAndReportDown_whenStageFails() {
+
+        graphPreprocessor.shutdown();
+        var failing = new RecordingStage("route-table") {
+
+            @Override
+            public void build(BorderGraph borderGraph, ForkJoinPool pool) {
+
+                throw new IllegalStateException("Too many countries");
+            }
+        };
+        graphPreprocessor = newPreprocessor(failing, landmarks);
+        when(countryRepository.getBorderGraph()).thenReturn(borderGraph);
+
+        graphPreprocessor.submit(borderGraph).join();
+
+        assertThat(landmarks.builtFor).containsExactly(borderGraph);
+        var health = graphPreprocessor.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails())
+            .containsEntry("failures", Map.of("route-table", "Too many countries"));
+    }
+
+    @Test
+    void submit_shouldBuildRemainingStagesAndReportDown_whenStageRunsOutOfMemory() {
+
+        graphPreprocessor.shutdown();
+        var failing = new RecordingStage("route-table") {
+
+            @Override
+            public void build(BorderGraph borderGraph, ForkJoinPool pool) {
+
+                throw new OutOfMemoryError("Java heap space");
+            }
+        };
+        graphPreprocessor = newPreprocessor(failing, landmarks);
+        when(countryRepository.getBorderGraph()).thenReturn(borderGraph);
+
+        graphPreprocessor.submit(borderGraph).join();
+
+        assertThat(landmarks.builtFor).containsExactly(borderGraph);
+        var health = graphPreprocessor.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails())
+            .containsEntry(
+                "failures", Map.of("route-table", "java.lang.OutOfMemoryError: Java heap space"));
+    }
+
+    @Test
+    void submit_shouldReportDown_whenRunFailsOutsideStages() {
+
+        when(countryRepository.getBorderGraph())
+            .thenThrow(new IllegalStateException("No country data loaded"));
+
+        assertThatThrownBy(() -> graphPreprocessor.submit(borderGraph).join())
+            .hasCauseInstanceOf(IllegalStateException.class);
+
+        var health = graphPreprocessor.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails())
+            .containsEntry("failures", Map.of("preprocessing", "No country data loaded"));
+    }
+
+    private GraphPreprocessor newPreprocessor(PreprocessingStage... stages) {
+
+        var beans = new LinkedHashMap<String, Object>();
+        for (var stage : stages) {
+            beans.put(stage.name(), stage);
+        }
+        var beanFactory = new StaticListableBeanFactory(beans);
+
+        return new GraphPreprocessor(
+            countryRepository, beanFactory.getBeanProvider(PreprocessingStage.class), meterRegistry, 2);
+    }
+
+    private static class RecordingStage implements PreprocessingStage {
+
+        private final String name;
+        private final List<BorderGraph> builtFor = new ArrayList<>();
+        private int parallelism;
+
+        RecordingStage(String name) {
+
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+
+            return name;
+        }
+
+        @Override
+        public void build(BorderGraph borderGraph, ForkJoinPool pool) {
+
+            builtFor.add(borderGraph);
+            parallelism = pool.getParallelism();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.model.exception.CountryNotFoundException;
+import com.daniel.routingservice.model.exception.RouteNotFoundException;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes read from the table; that they match the BFS on real data is checked in
+ * {@link BfsRoutingServiceEquivalenceTest}.
+ */
+class PrecomputedRoutingServiceTest {
+
+    private final InMemoryCountryRepository countryRepository = SampleCountries.repository();
+    private final InMemoryCountryRepository reloadedRepository = new InMemoryCountryRepository(List.of(
+        new Country("CZE", List.of("ROU")),
+        new Country("ROU", List.of("CZE"))));
+
+    private PrecomputedRoutingService precomputedRoutingService;
+
+    @BeforeEach
+    void setUp() {
+
+        precomputedRoutingService = newService(countryRepository);
+        precomputedRoutingService.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void findRoute_shouldReturnDirectRoute_whenCountriesShareBorder() {
+
+        var result = precomputedRoutingService.findRoute("CZE", "AUT");
+
+        assertThat(result.route()).containsExactly("CZE", "AUT");
+    }
+
+    @Test
+    void findRoute_shouldReturnLongerRoute_whenThreeHopsRequired() {
+
+        var result = precomputedRoutingService.findRoute("CZE", "ROU");
+
+        assertThat(result.route()).containsExactly("CZE", "AUT", "HUN", "ROU");
+    }
+
+    @Test
+    void findRoute_shouldReturnSingleCountry_whenOriginEqualsDestination() {
+
+        var result = precomputedRoutingService.findRoute("CZE", "CZE");
+
+        assertThat(result.route()).containsExactly("CZE");
+    }
+
+    @Test
+    void findRoute_shouldFollowOneSidedBorder_onlyInItsDirection() {
+
+        assertThat(precomputedRoutingService.findRoute("LKA", "CZE").route())
+            .containsExactly("LKA", "ROU", "HUN", "AUT", "CZE");
+        assertThatThrownBy(() -> precomputedRoutingService.findRoute("CZE", "LKA"))
+            .isInstanceOf(RouteNotFoundException.class);
+    }
+
+    @Test
+    void findRoute_shouldThrowCountryNotFoundException_whenOriginDoesNotExist() {
+
+        assertThatThrownBy(() -> precomputedRoutingService.findRoute("XXX", "ITA"))
+            .isInstanceOf(CountryNotFoundException.class)
+            .hasMessageContaining("XXX");
+    }
+
+    @Test
+    void findRoute_shouldThrowRouteNotFoundException_whenNoLandRouteExists() {
+
+        assertThatThrownBy(() -> precomputedRoutingService.findRoute("CZE", "ISL"))
+            .isInstanceOf(RouteNotFoundException.class)
+            .hasMessageContaining("CZE")
+            .hasMessageContaining("ISL");
+    }
+
+    @Test
+    void findRoute_shouldUseRebuiltTable_whenCountryDataReloaded() {
+
+        var reloadedService = newService(reloadedRepository);
+        reloadedService.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+        reloadedService.build(reloadedRepository.getBorderGraph(), ForkJoinPool.commonPool());
+
+        assertThat(reloadedService.findRoute("CZE", "ROU").route()).containsExactly("CZE", "ROU");
+    }
+
+    @Test
+    void findRoute_shouldSearchWithoutTable_whenGraphChangedBeforeTableWasRebuilt() {
+
+        var reloadedService = newService(reloadedRepository);
+        reloadedService.build(countryRepository.getBorderGraph(), ForkJoinPool.commonPool());
+
+        assertThat(reloadedService.findRoute("CZE", "ROU").route()).containsExactly("CZE", "ROU");
+    }
+
+    private static PrecomputedRoutingService newService(InMemoryCountryRepository repository) {
+
+        return TestEngines.precomputed(repository);
+    }
+}
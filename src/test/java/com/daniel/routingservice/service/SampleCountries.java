@@ -0,0 +1,29 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.model.Country;
+import com.daniel.routingservice.repository.InMemoryCountryRepository;
+
+import java.util.List;
+
+/**
+ * Small border graph shared by the engine tests: a chain from CZE through AUT and HUN to ROU with two
+ * routes of equal length from AUT to SVN, LKA bordering ROU on its side only, and ISL without borders.
+ */
+final class SampleCountries {
+
+    private SampleCountries() {
+    }
+
+    static InMemoryCountryRepository repository() {
+
+        return new InMemoryCountryRepository(List.of(
+            new Country("CZE", List.of("AUT")),
+            new Country("AUT", List.of("CZE", "ITA", "HUN")),
+            new Country("ITA", List.of("AUT", "SVN")),
+            new Country("HUN", List.of("AUT", "ROU", "SVN")),
+            new Country("ROU", List.of("HUN")),
+            new Country("SVN", List.of("ITA", "HUN")),
+            new Country("LKA", List.of("ROU")),
+            new Country("ISL", List.of())));
+    }
+}
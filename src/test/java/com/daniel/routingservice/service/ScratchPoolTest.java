@@ -0,0 +1,61 @@
+package com.daniel.routingservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScratchPoolTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    void acquire_shouldKeepOneInstancePerThread_whenCalledOnPlatformThread() {
+
+        var pool = new ScratchPool<Object>(ignored -> created.incrementAndGet(), 4);
+
+        var first = pool.acquire();
+        pool.release(first);
+        var second = pool.acquire();
+
+        assertThat(second).isSameAs(first);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void acquire_shouldReuseReleasedInstance_whenCalledOnVirtualThreads() throws InterruptedException {
+
+        var pool = new ScratchPool<Object>(ignored -> created.incrementAndGet(), 4);
+        var first = new AtomicReference<>();
+        var second = new AtomicReference<>();
+
+        Thread.ofVirtual().start(() -> {
+            first.set(pool.acquire());
+            pool.release(first.get());
+        }).join();
+        Thread.ofVirtual().start(() -> second.set(pool.acquire())).join();
+
+        assertThat(second.get()).isSameAs(first.get());
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void release_shouldDropInstance_whenPoolIsFull() throws InterruptedException {
+
+        var pool = new ScratchPool<Object>(ignored -> created.incrementAndGet(), 1);
+        var reacquired = new AtomicReference<>();
+
+        Thread.ofVirtual().start(() -> {
+            var first = pool.acquire();
+            var second = pool.acquire();
+            pool.release(first);
+            pool.release(second);
+            pool.acquire();
+            reacquired.set(pool.acquire());
+        }).join();
+
+        assertThat(reacquired.get()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,42 @@
+package com.daniel.routingservice.service;
+
+import com.daniel.routingservice.repository.CountryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Routing engines for tests, each with its own meters timing every search and a distance oracle with the
+ * default limits: exact hops up to 4096 countries, 8 landmarks above.
+ */
+public final class TestEngines {
+
+    private TestEngines() {
+    }
+
+    public static BfsRoutingService bfs(CountryRepository countryRepository) {
+
+        return new BfsRoutingService(
+            countryRepository, routingMetrics(), distanceOracle(countryRepository));
+    }
+
+    public static BidirectionalBfsRoutingService bidirectional(CountryRepository countryRepository) {
+
+        return new BidirectionalBfsRoutingService(
+            countryRepository, routingMetrics(), distanceOracle(countryRepository));
+    }
+
+    public static PrecomputedRoutingService precomputed(CountryRepository countryRepository) {
+
+        return new PrecomputedRoutingService(
+            countryRepository, routingMetrics(), distanceOracle(countryRepository));
+    }
+
+    public static RoutingMetrics routingMetrics() {
+
+        return new RoutingMetrics(new SimpleMeterRegistry(), 1);
+    }
+
+    private static DistanceOracle distanceOracle(CountryRepository countryRepository) {
+
+        return new DistanceOracle(countryRepository, 4096, 8);
+    }
+}